@@ -6,13 +6,22 @@ import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidApplicationConfiguration;
 import com.alex.tetris.TetrisGame;
 
-/** Launches the Android application. */
+/**
+ * Launches the Android application in low-power mode: frames are only rendered when something
+ * changes, and the sensors the game never reads are left off so they don't keep the device awake.
+ */
 public class AndroidLauncher extends AndroidApplication {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         AndroidApplicationConfiguration configuration = new AndroidApplicationConfiguration();
         configuration.useImmersiveMode = true; // Recommended, but not required.
-        initialize(new TetrisGame(), configuration);
+        configuration.useAccelerometer = false;
+        configuration.useCompass = false;
+        configuration.useGyroscope = false;
+        configuration.useRotationVectorSensor = false;
+        TetrisGame game = new TetrisGame();
+        game.lowPower = true;
+        initialize(game, configuration);
     }
-}
\ No newline at end of file
+}
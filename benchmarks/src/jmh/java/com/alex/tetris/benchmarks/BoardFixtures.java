@@ -0,0 +1,65 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.Board;
+import com.alex.tetris.TetrisGame;
+
+import java.util.Random;
+
+/** Representative boards shared by the benchmarks. Built from a fixed seed so runs are comparable. */
+public final class BoardFixtures {
+    public enum Kind {
+        /** Nothing placed yet. */
+        EMPTY,
+        /** Eight rows of garbage with one hole each plus a few overhangs: typical mid-game. */
+        MESSY,
+        /** Seventeen rows of garbage: the stack is three rows from the spawn area. */
+        NEAR_TOP_OUT
+    }
+
+    private static final long SEED = 20240501L;
+
+    private BoardFixtures() {
+    }
+
+    public static Board create(Kind kind) {
+        Board board = new Board(TetrisGame.BOARD_COLUMNS, TetrisGame.BOARD_ROWS);
+        Random random = new Random(SEED);
+        switch (kind) {
+            case EMPTY:
+                break;
+            case MESSY:
+                fillGarbage(board, random, 8);
+                addOverhangs(board, random, 8);
+                break;
+            case NEAR_TOP_OUT:
+                fillGarbage(board, random, 17);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown board kind: " + kind);
+        }
+        return board;
+    }
+
+    // Rows with a single hole each, so clears are possible but no row starts full
+    private static void fillGarbage(Board board, Random random, int rows) {
+        for (int row = 0; row < rows; row++) {
+            int hole = random.nextInt(board.getColumns());
+            for (int col = 0; col < board.getColumns(); col++) {
+                if (col != hole) {
+                    fill(board, random, row, col);
+                }
+            }
+        }
+    }
+
+    // Loose cells above the garbage, leaving covered gaps underneath
+    private static void addOverhangs(Board board, Random random, int fromRow) {
+        for (int i = 0; i < 4; i++) {
+            fill(board, random, fromRow + 1 + random.nextInt(2), random.nextInt(board.getColumns()));
+        }
+    }
+
+    private static void fill(Board board, Random random, int row, int col) {
+        board.place(new int[] {1}, col, row, 1 + random.nextInt(7));
+    }
+}
@@ -0,0 +1,50 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.Board;
+import com.alex.tetris.Bot;
+import com.alex.tetris.PieceShapes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full two-ply {@link Bot#search} decision (about 1,000 evaluated placements), searched on
+ * the calling thread or split across the common ForkJoin pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BotBenchmark {
+    @Param
+    public BoardFixtures.Kind board;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Board fixture;
+    private Bot bot;
+    private int type;
+
+    @Setup
+    public void setUp() {
+        fixture = BoardFixtures.create(board);
+        bot = new Bot(fixture.getColumns(), fixture.getRows(), parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    @Benchmark
+    public int search() {
+        // Cycles through every piece pair so no single one dominates
+        type = (type + 1) % (PieceShapes.COUNT * PieceShapes.COUNT);
+        bot.search(fixture, type / PieceShapes.COUNT, type % PieceShapes.COUNT);
+        return bot.getTargetX();
+    }
+}
@@ -0,0 +1,56 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.Board;
+import com.alex.tetris.PieceShapes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Cost of a single {@link Board#collides} call, averaged over every piece state, column and row. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+    // 7 pieces x 4 rotations x 12 columns x 22 rows (a constant so it can be used in the annotation)
+    private static final int PROBES = 7 * 4 * 12 * 22;
+
+    @Param
+    public BoardFixtures.Kind board;
+
+    private Board fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = BoardFixtures.create(board);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int collides() {
+        int hits = 0;
+        for (int type = 0; type < PieceShapes.COUNT; type++) {
+            for (int rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+                int[] masks = PieceShapes.rowMasks(type, rotation);
+                int width = PieceShapes.width(type, rotation);
+                // Includes one column past each wall and one row below the floor and above the top
+                for (int x = -1; x < 11; x++) {
+                    for (int y = -1; y < 21; y++) {
+                        if (fixture.collides(masks, x, y, width)) {
+                            hits++;
+                        }
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+}
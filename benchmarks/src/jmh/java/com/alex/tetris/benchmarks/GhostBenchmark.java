@@ -0,0 +1,48 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.Board;
+import com.alex.tetris.PieceShapes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Cost of computing one ghost (landing row) with {@link Board#dropY} from the top of the board. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GhostBenchmark {
+    @Param
+    public BoardFixtures.Kind board;
+
+    private Board fixture;
+    private Placements placements;
+
+    @Setup
+    public void setUp() {
+        fixture = BoardFixtures.create(board);
+        placements = new Placements();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Placements.COUNT)
+    public int dropY() {
+        int sum = 0;
+        int spawnRow = fixture.getRows();
+        for (int i = 0; i < Placements.COUNT; i++) {
+            int type = placements.types[i];
+            int rotation = placements.rotations[i];
+            sum += fixture.dropY(PieceShapes.rowMasks(type, rotation), PieceShapes.bottoms(type, rotation),
+                placements.columns[i], spawnRow, PieceShapes.width(type, rotation));
+        }
+        return sum;
+    }
+}
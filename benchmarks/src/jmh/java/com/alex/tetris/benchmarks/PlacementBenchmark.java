@@ -0,0 +1,64 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.Board;
+import com.alex.tetris.PieceShapes;
+import com.alex.tetris.TetrisGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placing a piece and clearing the lines it completes, cycling through every placement.
+ * Each operation first restores the fixture with {@link Board#copyFrom}; {@link #restoreOnly}
+ * measures that part alone so it can be subtracted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlacementBenchmark {
+    @Param
+    public BoardFixtures.Kind board;
+
+    private Board fixture;
+    private Board scratch;
+    private Placements placements;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = BoardFixtures.create(board);
+        scratch = new Board(TetrisGame.BOARD_COLUMNS, TetrisGame.BOARD_ROWS);
+        placements = new Placements();
+    }
+
+    @Benchmark
+    public int placeAndClear() {
+        scratch.copyFrom(fixture);
+
+        int i = next;
+        next = i + 1 == Placements.COUNT ? 0 : i + 1;
+        int type = placements.types[i];
+        int rotation = placements.rotations[i];
+        int x = placements.columns[i];
+        int[] masks = PieceShapes.rowMasks(type, rotation);
+        int y = scratch.dropY(masks, PieceShapes.bottoms(type, rotation), x, scratch.getRows(),
+            PieceShapes.width(type, rotation));
+
+        scratch.place(masks, x, y, type + 1);
+        return scratch.clearFullRows(y, y + PieceShapes.height(type, rotation));
+    }
+
+    @Benchmark
+    public Board restoreOnly() {
+        scratch.copyFrom(fixture);
+        return scratch;
+    }
+}
@@ -0,0 +1,31 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.PieceShapes;
+import com.alex.tetris.TetrisGame;
+
+/** Every (type, rotation, column) a piece can be dropped at on the default board. */
+final class Placements {
+    /** Size of the list for a 10 column board; a constant so it can be used in annotations. */
+    static final int COUNT = 240;
+
+    final int[] types = new int[COUNT];
+    final int[] rotations = new int[COUNT];
+    final int[] columns = new int[COUNT];
+
+    Placements() {
+        int i = 0;
+        for (int type = 0; type < PieceShapes.COUNT; type++) {
+            for (int rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+                for (int x = 0; x + PieceShapes.width(type, rotation) <= TetrisGame.BOARD_COLUMNS; x++) {
+                    types[i] = type;
+                    rotations[i] = rotation;
+                    columns[i] = x;
+                    i++;
+                }
+            }
+        }
+        if (i != COUNT) {
+            throw new IllegalStateException("Expected " + COUNT + " placements, found " + i);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.PieceShapes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Drawing the next piece type, with the same generator call TetrisEngine makes on every spawn. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RandomPieceBenchmark {
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public int nextPiece() {
+        return random.nextInt(PieceShapes.COUNT);
+    }
+}
@@ -0,0 +1,46 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.TetrisEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One rotation input through the engine: kick table probes plus the ghost update on success.
+ * The piece is pushed against the left wall so the I piece needs kicks to turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RotationBenchmark {
+    @Param
+    public BoardFixtures.Kind board;
+
+    @Param({"0", "3", "6"})
+    public long seed;
+
+    private TetrisEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new TetrisEngine(seed);
+        engine.getBoard().copyFrom(BoardFixtures.create(board));
+        for (int i = 0; i < engine.getBoard().getColumns(); i++) {
+            engine.applyInput(TetrisEngine.INPUT_MOVE_LEFT);
+        }
+    }
+
+    @Benchmark
+    public int rotate() {
+        engine.applyInput(TetrisEngine.INPUT_ROTATE);
+        return engine.getCurrentPiece().rotation;
+    }
+}
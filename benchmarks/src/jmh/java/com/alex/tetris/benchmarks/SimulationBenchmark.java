@@ -0,0 +1,49 @@
+package com.alex.tetris.benchmarks;
+
+import com.alex.tetris.TetrisEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole games played headless with random inputs, reported in games per second.
+ * Roughly one input every four ticks, with an occasional hard drop, until the game tops out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SimulationBenchmark {
+    private static final int MAX_TICKS = 1_000_000;
+
+    private TetrisEngine engine;
+    private Random inputs;
+
+    @Setup
+    public void setUp() {
+        engine = new TetrisEngine(1);
+        inputs = new Random(2);
+    }
+
+    @Benchmark
+    public long playGame() {
+        engine.reset();
+        while (!engine.isGameOver() && engine.getTickCount() < MAX_TICKS) {
+            int roll = inputs.nextInt(32);
+            if (roll < 6) {
+                engine.applyInput(roll);
+            } else if (roll < 8) {
+                engine.applyInput(TetrisEngine.INPUT_ROTATE);
+            }
+            engine.tick();
+        }
+        return engine.getTickCount();
+    }
+}
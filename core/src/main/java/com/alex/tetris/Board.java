@@ -0,0 +1,227 @@
+package com.alex.tetris;
+
+import java.util.Arrays;
+
+/**
+ * Tablero en formato bitboard: cada fila es una máscara de bits (bit {@code c} = columna {@code c}),
+ * así que la colisión son unos pocos AND y una fila llena es una sola comparación.
+ * El plano de colores va aparte y solo lo usa el renderizado. Se mantiene además la altura
+ * de cada columna (el perfil superior) para calcular caídas sin bajar fila a fila, y la altura
+ * de la pila: limpiar líneas y copiar tableros solo recorren las filas ocupadas, así que en
+ * tableros muy altos el coste depende de la pila y no del tamaño del tablero.
+ */
+public class Board {
+    public static final int MAX_COLUMNS = Long.SIZE;
+    public static final int MAX_ROWS = 1 << 14; // La y de TetrisPiece.pack() llega hasta 16383
+
+    private final int columns;
+    private final int rows;
+    private final long fullRowMask;
+    private final long[] cells;  // Una máscara por fila, fila 0 abajo
+    private final byte[] colors; // 0 vacía, tipo de pieza + 1 si no
+    private final int[] heights; // Fila ocupada más alta + 1 de cada columna
+    private int top;             // Fila ocupada más alta + 1 de todo el tablero
+
+    public Board(int columns, int rows) {
+        if (columns < 1 || columns > MAX_COLUMNS) {
+            throw new IllegalArgumentException("Board columns must be between 1 and " + MAX_COLUMNS + ": " + columns);
+        }
+        if (rows < 1 || rows > MAX_ROWS) {
+            throw new IllegalArgumentException("Board rows must be between 1 and " + MAX_ROWS + ": " + rows);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.fullRowMask = columns == MAX_COLUMNS ? -1L : (1L << columns) - 1;
+        this.cells = new long[rows];
+        this.colors = new byte[rows * columns];
+        this.heights = new int[columns];
+    }
+
+    /** Máscaras por fila de una forma (fila 0 de la forma = fila inferior de la pieza). */
+    public static int[] rowMasks(int[][] shape) {
+        int[] masks = new int[shape.length];
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < shape[row].length; col++) {
+                if (shape[row][col] != 0) {
+                    masks[row] |= 1 << col;
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Comprueba si una pieza con estas máscaras, de ancho {@code width}, choca en (x, y).
+     * Las filas por encima del tablero solo comprueban las paredes.
+     */
+    public boolean collides(int[] masks, int x, int y, int width) {
+        if (x < 0 || x + width > columns || y < 0) {
+            return true;
+        }
+        int visibleRows = Math.min(masks.length, rows - y);
+        for (int r = 0; r < visibleRows; r++) {
+            if ((cells[y + r] & ((long) masks[r] << x)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fila en la que se posa una pieza que cae desde (x, y). Si la pieza está por encima del
+     * perfil en todas sus columnas basta con el perfil (O(ancho)); si está metida bajo un
+     * saliente se baja fila a fila.
+     *
+     * @param bottoms fila más baja ocupada de cada columna de la pieza
+     */
+    public int dropY(int[] masks, int[] bottoms, int x, int y, int width) {
+        int landingY = 0;
+        for (int c = 0; c < width; c++) {
+            int height = heights[x + c];
+            if (y + bottoms[c] < height) {
+                return descend(masks, x, y, width);
+            }
+            landingY = Math.max(landingY, height - bottoms[c]);
+        }
+        return landingY;
+    }
+
+    private int descend(int[] masks, int x, int y, int width) {
+        while (!collides(masks, x, y - 1, width)) {
+            y--;
+        }
+        return y;
+    }
+
+    /** Fija una pieza ya validada; las celdas fuera del tablero se ignoran. */
+    public void place(int[] masks, int x, int y, int color) {
+        for (int r = 0; r < masks.length; r++) {
+            int row = y + r;
+            if (row < 0 || row >= rows) continue;
+
+            long bits = (long) masks[r] << x;
+            if (bits == 0) continue;
+            cells[row] |= bits;
+            top = Math.max(top, row + 1);
+            int base = row * columns;
+            while (bits != 0) {
+                int col = Long.numberOfTrailingZeros(bits);
+                colors[base + col] = (byte) color;
+                heights[col] = Math.max(heights[col], row + 1);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /** Elimina las filas completas de todo el tablero y devuelve cuántas había. */
+    public int clearFullRows() {
+        return clearFullRows(0, rows);
+    }
+
+    /**
+     * Elimina las filas completas entre {@code fromRow} (incluida) y {@code toRow} (excluida),
+     * normalmente las que ocupa la pieza recién colocada: el resto no puede haberse llenado.
+     * Compacta el tablero en una sola pasada y devuelve cuántas filas se han eliminado.
+     */
+    public int clearFullRows(int fromRow, int toRow) {
+        fromRow = Math.max(fromRow, 0);
+        toRow = Math.min(toRow, rows);
+
+        int firstFull = fromRow;
+        while (firstFull < toRow && cells[firstFull] != fullRowMask) {
+            firstFull++;
+        }
+        if (firstFull == toRow) {
+            return 0;
+        }
+
+        // Por encima de la pila todo está vacío: no hace falta mover esas filas
+        int write = firstFull;
+        for (int read = firstFull; read < top; read++) {
+            if (read < toRow && cells[read] == fullRowMask) continue;
+            if (write != read) {
+                cells[write] = cells[read];
+                System.arraycopy(colors, read * columns, colors, write * columns, columns);
+            }
+            write++;
+        }
+        int linesCleared = top - write;
+
+        Arrays.fill(cells, write, top, 0);
+        Arrays.fill(colors, write * columns, top * columns, (byte) 0);
+        updateHeights(write);
+        // Una fila vacía puede quedar como la más alta si la pila tenía salientes
+        top = 0;
+        for (int col = 0; col < columns; col++) {
+            top = Math.max(top, heights[col]);
+        }
+        return linesCleared;
+    }
+
+    // Recalcula el perfil bajando desde la fila top; para en cuanto todas las columnas tienen techo
+    private void updateHeights(int top) {
+        Arrays.fill(heights, 0);
+        long remaining = fullRowMask;
+        for (int row = top - 1; row >= 0 && remaining != 0; row--) {
+            long found = cells[row] & remaining;
+            remaining &= ~found;
+            while (found != 0) {
+                heights[Long.numberOfTrailingZeros(found)] = row + 1;
+                found &= found - 1;
+            }
+        }
+    }
+
+    /**
+     * Copia el contenido de otro tablero de las mismas dimensiones, sin reservar memoria. Solo se
+     * copian las filas hasta la pila más alta de los dos; por encima ambos están vacíos.
+     */
+    public void copyFrom(Board other) {
+        if (other.columns != columns || other.rows != rows) {
+            throw new IllegalArgumentException("Board size mismatch: " + other.columns + "x" + other.rows
+                + " into " + columns + "x" + rows);
+        }
+        int copyRows = Math.max(top, other.top);
+        System.arraycopy(other.cells, 0, cells, 0, copyRows);
+        System.arraycopy(other.colors, 0, colors, 0, copyRows * columns);
+        System.arraycopy(other.heights, 0, heights, 0, columns);
+        top = other.top;
+    }
+
+    public void clear() {
+        Arrays.fill(cells, 0, top, 0);
+        Arrays.fill(colors, 0, top * columns, (byte) 0);
+        Arrays.fill(heights, 0);
+        top = 0;
+    }
+
+    public boolean isFilled(int row, int col) {
+        return (cells[row] & (1L << col)) != 0;
+    }
+
+    /** Valor de la celda: 0 vacía, o el tipo de pieza + 1. */
+    public int getColor(int row, int col) {
+        return colors[row * columns + col];
+    }
+
+    public long getRowMask(int row) {
+        return cells[row];
+    }
+
+    public int getColumnHeight(int col) {
+        return heights[col];
+    }
+
+    /** Fila ocupada más alta + 1 (0 si el tablero está vacío). */
+    public int getStackHeight() {
+        return top;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,89 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Capa estática del tablero: las celdas fijadas se dibujan en un FrameBuffer solo cuando el
+ * tablero cambia (al colocar una pieza o limpiar líneas) y cada frame se pinta como un único quad.
+ */
+public class BoardLayer implements Disposable {
+    private final FrameBuffer frameBuffer;
+    private final TextureRegion region;
+    private final Matrix4 projection = new Matrix4();
+    private final Matrix4 savedProjection = new Matrix4();
+    private final int cellSize;
+    private boolean dirty = true;
+
+    /** @param resources crea el FrameBuffer para que cuente entre los vivos */
+    public BoardLayer(Resources resources, int columns, int rows, int cellSize) {
+        this.cellSize = cellSize;
+        int width = columns * cellSize;
+        int height = rows * cellSize;
+        frameBuffer = resources.newFrameBuffer(Pixmap.Format.RGBA8888, width, height);
+        region = new TextureRegion(frameBuffer.getColorBufferTexture());
+        region.flip(false, true); // El FrameBuffer guarda la imagen invertida en Y
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    /** Marca la capa para redibujarla en el siguiente frame. */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Redibuja el FrameBuffer si el tablero ha cambiado. Debe llamarse fuera de batch.begin()/end();
+     * al terminar el viewport de GL queda a pantalla completa y hay que volver a aplicar el del juego.
+     *
+     * @return true si se ha redibujado
+     */
+    public boolean update(SpriteBatch batch, Board board, GameAtlas atlas) {
+        if (!dirty) return false;
+
+        savedProjection.set(batch.getProjectionMatrix());
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                int cellValue = board.getColor(row, col);
+                TextureRegion texture;
+
+                if (cellValue == 0) {
+                    texture = atlas.cell; // Celda vacía
+                } else {
+                    texture = atlas.pieces[cellValue - 1]; // Restamos 1 para obtener el índice correcto
+                }
+
+                batch.draw(texture, col * cellSize, row * cellSize);
+            }
+        }
+        batch.end();
+        frameBuffer.end();
+        batch.setProjectionMatrix(savedProjection);
+
+        dirty = false;
+        return true;
+    }
+
+    public void draw(SpriteBatch batch, float x, float y) {
+        batch.draw(region, x, y);
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+    }
+}
@@ -0,0 +1,333 @@
+package com.alex.tetris;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Jugador automático: prueba cada colocación de la pieza actual (rotaciones × columnas, dejándola
+ * caer en vertical) y, para cada una, todas las de la pieza siguiente; se queda con la que deja
+ * el mejor tablero según una heurística ponderada (huecos, altura total, irregularidad y líneas).
+ *
+ * <p>El camino hasta cada colocación tiene en cuenta la gravedad: con niveles altos la pieza baja
+ * varias filas (o llega al fondo) entre una entrada y la siguiente, así que el desplazamiento
+ * lateral se comprueba a la altura a la que va cayendo y no solo en la fila de aparición.
+ *
+ * <p>El primer nivel se reparte entre los hilos de un ForkJoinPool (o se recorre en el hilo
+ * llamante si no hay pool). Los tableros de trabajo y las tareas se crean una sola vez en el
+ * constructor, así que buscar no reserva memoria por candidato. Son dos tableros completos por
+ * rotación y columna, así que el constructor rechaza los tableros en los que pasarían de
+ * {@link #MAX_SCRATCH_BYTES}. Una instancia solo atiende una búsqueda a la vez.
+ */
+public class Bot {
+    // Pesos de la heurística (los de la conocida versión de cuatro rasgos de Yiyuan Lee)
+    private static final double HEIGHT_WEIGHT = -0.510066;
+    private static final double LINES_WEIGHT = 0.760666;
+    private static final double HOLES_WEIGHT = -0.35663;
+    private static final double BUMPINESS_WEIGHT = -0.184483;
+
+    /** Memoria máxima de los tableros de trabajo de un bot; con 64 columnas llega a unas 1800 filas. */
+    public static final long MAX_SCRATCH_BYTES = 64L << 20;
+
+    // Rotaciones distintas de cada pieza: la O tiene una, la I, S y Z dos, el resto cuatro
+    private static final int[] DISTINCT_ROTATIONS = new int[PieceShapes.COUNT];
+
+    static {
+        for (int type = 0; type < PieceShapes.COUNT; type++) {
+            int distinct = PieceShapes.ROTATIONS;
+            for (int r = 1; r < PieceShapes.ROTATIONS && distinct == PieceShapes.ROTATIONS; r++) {
+                if (Arrays.equals(PieceShapes.rowMasks(type, 0), PieceShapes.rowMasks(type, r))) {
+                    distinct = r;
+                }
+            }
+            DISTINCT_ROTATIONS[type] = distinct;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int columns;
+    private final int rows;
+    private final Candidate[] candidates;
+    private final SearchTask search = new SearchTask();
+    private int candidateCount;
+
+    private Board board;
+    private int nextType;
+    private float gravity;     // Filas que cae la pieza por tick
+    private int ticksPerInput; // Ticks entre dos entradas
+    private int target = -1; // Colocación elegida, empaquetada con TetrisPiece.pack
+    private long evaluatedPlacements;
+
+    /**
+     * @param pool hilos para el primer nivel de la búsqueda, o null para buscar en el hilo llamante
+     */
+    public Bot(int columns, int rows, ForkJoinPool pool) {
+        long scratchBytes = scratchBytes(columns, rows);
+        if (scratchBytes > MAX_SCRATCH_BYTES) {
+            throw new IllegalArgumentException("Board too large for the bot: " + columns + "x" + rows + " needs "
+                + (scratchBytes >> 20) + " MB of scratch boards, at most " + (MAX_SCRATCH_BYTES >> 20) + " MB");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.pool = pool;
+        // Como mucho una colocación por rotación y columna
+        candidates = new Candidate[PieceShapes.ROTATIONS * columns];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = new Candidate(columns, rows);
+        }
+    }
+
+    /** Memoria aproximada de los tableros de trabajo: dos por rotación y columna (máscaras, colores y alturas). */
+    public static long scratchBytes(int columns, int rows) {
+        long board = (long) rows * (Long.BYTES + columns) + (long) columns * Integer.BYTES;
+        return 2L * PieceShapes.ROTATIONS * columns * board;
+    }
+
+    /**
+     * Busca la mejor colocación de {@code type} sobre {@code board} sabiendo que después viene
+     * {@code nextType}, suponiendo que la pieza no cae mientras se coloca. El resultado queda en
+     * {@link #getTarget()}.
+     *
+     * @return false si la pieza no cabe en ninguna posición
+     */
+    public boolean search(Board board, int type, int nextType) {
+        return search(board, type, nextType, 0, 1);
+    }
+
+    /**
+     * Como {@link #search(Board, int, int)}, pero la pieza cae {@code gravity} filas por tick y
+     * recibe una entrada cada {@code ticksPerInput} ticks: solo cuentan las colocaciones a las que
+     * se llega girando y desplazándose mientras baja.
+     */
+    public boolean search(Board board, int type, int nextType, float gravity, int ticksPerInput) {
+        if (gravity < 0 || ticksPerInput < 1) {
+            throw new IllegalArgumentException("Invalid fall: " + gravity + " rows per tick, "
+                + ticksPerInput + " ticks per input");
+        }
+        if (board.getColumns() != columns || board.getRows() != rows) {
+            throw new IllegalArgumentException("Bot built for " + columns + "x" + rows + " boards, got "
+                + board.getColumns() + "x" + board.getRows());
+        }
+        this.board = board;
+        this.nextType = nextType;
+        this.gravity = gravity;
+        this.ticksPerInput = ticksPerInput;
+
+        candidateCount = 0;
+        for (int rotation = 0; rotation < DISTINCT_ROTATIONS[type]; rotation++) {
+            int width = PieceShapes.width(type, rotation);
+            for (int x = 0; x + width <= columns; x++) {
+                Candidate candidate = candidates[candidateCount++];
+                candidate.type = type;
+                candidate.rotation = rotation;
+                candidate.x = x;
+            }
+        }
+
+        if (pool != null && candidateCount > 1) {
+            search.reinitialize();
+            pool.invoke(search);
+        } else {
+            for (int i = 0; i < candidateCount; i++) {
+                candidates[i].evaluate();
+            }
+        }
+
+        double bestScore = Double.NEGATIVE_INFINITY;
+        Candidate best = null;
+        for (int i = 0; i < candidateCount; i++) {
+            Candidate candidate = candidates[i];
+            evaluatedPlacements += candidate.evaluated;
+            if (candidate.score > bestScore) {
+                bestScore = candidate.score;
+                best = candidate;
+            }
+        }
+        this.board = null;
+        if (best == null) {
+            target = -1;
+            return false;
+        }
+        target = TetrisPiece.pack(type, best.rotation, best.x, landingY(board, type, best.rotation, best.x, gravity, ticksPerInput));
+        return true;
+    }
+
+    /** Colocación elegida en la última búsqueda (tipo, rotación, x y fila de aterrizaje) empaquetada con {@link TetrisPiece#pack}. */
+    public int getTarget() {
+        return target;
+    }
+
+    public int getTargetRotation() {
+        return TetrisPiece.rotation(target);
+    }
+
+    public int getTargetX() {
+        return TetrisPiece.x(target);
+    }
+
+    /** Colocaciones evaluadas desde que se creó el bot (ambos niveles de la búsqueda). */
+    public long getEvaluatedPlacements() {
+        return evaluatedPlacements;
+    }
+
+    /**
+     * Lleva la pieza a (rotation, x) y la suelta sobre {@code target}, que debe tener ya una copia
+     * del tablero de partida.
+     *
+     * @return líneas completadas, o -1 si la pieza no puede llegar a esa posición
+     */
+    static int drop(Board target, int type, int rotation, int x, float gravity, int ticksPerInput) {
+        int y = landingY(target, type, rotation, x, gravity, ticksPerInput);
+        if (y < 0) return -1;
+        int[] masks = PieceShapes.rowMasks(type, rotation);
+        target.place(masks, x, y, type + 1);
+        return target.clearFullRows(y, y + masks.length);
+    }
+
+    /**
+     * Fila en la que acaba la pieza si aparece como en el motor, gira (con los mismos kicks), se
+     * desplaza una columna por entrada y se suelta al llegar. Entre entradas cae lo que marque la
+     * gravedad, así que con niveles altos el camino se recorre apoyada sobre el montón.
+     *
+     * @return la fila, o -1 si el camino está bloqueado
+     */
+    static int landingY(Board target, int type, int rotation, int x, float gravity, int ticksPerInput) {
+        int r = 0;
+        int[] masks = PieceShapes.rowMasks(type, 0);
+        int width = PieceShapes.width(type, 0);
+        int col = target.getColumns() / 2 - width / 2;
+        int y = target.getRows() - PieceShapes.height(type, 0);
+        if (target.collides(masks, col, y, width)) return -1;
+
+        // Tras soltar la pieza anterior el motor aún hace un tick antes de la primera entrada
+        float progress = gravity;
+        int restingInputs = 0;
+        while (true) {
+            int floor = target.dropY(masks, PieceShapes.bottoms(type, r), col, y, width);
+            int rows = (int) progress;
+            progress -= rows;
+            y = Math.max(floor, y - rows);
+            if (r == rotation && col == x) return floor;
+
+            // Apoyada, cada entrada reinicia el retardo de bloqueo un número limitado de veces
+            restingInputs = y == floor ? restingInputs + 1 : 0;
+            if (restingInputs > TetrisEngine.MAX_LOCK_RESETS) return -1;
+
+            if (r != rotation) {
+                int next = PieceShapes.nextRotation(r);
+                int[] nextMasks = PieceShapes.rowMasks(type, next);
+                int nextWidth = PieceShapes.width(type, next);
+                int[] kicks = PieceShapes.kicks(type, r);
+                int i = 0;
+                while (i < kicks.length && target.collides(nextMasks, col + kicks[i], y + kicks[i + 1], nextWidth)) {
+                    i += 2;
+                }
+                if (i == kicks.length) return -1;
+                col += kicks[i];
+                y += kicks[i + 1];
+                r = next;
+                masks = nextMasks;
+                width = nextWidth;
+            } else {
+                int step = x < col ? -1 : 1;
+                if (target.collides(masks, col + step, y, width)) return -1;
+                col += step;
+            }
+            progress += gravity * ticksPerInput;
+        }
+    }
+
+    /** Valor heurístico de un tablero tras colocar piezas que han completado {@code lines} líneas. */
+    static double evaluate(Board board, int lines) {
+        int columns = board.getColumns();
+        int aggregateHeight = 0;
+        int bumpiness = 0;
+        int top = 0;
+        for (int col = 0; col < columns; col++) {
+            int height = board.getColumnHeight(col);
+            aggregateHeight += height;
+            top = Math.max(top, height);
+            if (col > 0) {
+                bumpiness += Math.abs(height - board.getColumnHeight(col - 1));
+            }
+        }
+
+        // Un hueco es una celda vacía con alguna celda ocupada encima en su columna
+        int holes = 0;
+        long roof = 0;
+        for (int row = top - 1; row >= 0; row--) {
+            long cells = board.getRowMask(row);
+            holes += Long.bitCount(roof & ~cells);
+            roof |= cells;
+        }
+
+        return HEIGHT_WEIGHT * aggregateHeight
+            + LINES_WEIGHT * lines
+            + HOLES_WEIGHT * holes
+            + BUMPINESS_WEIGHT * bumpiness;
+    }
+
+    /** Una colocación del primer nivel con sus dos tableros de trabajo. */
+    private final class Candidate extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Board afterFirst;
+        private final Board afterSecond;
+        int type;
+        int rotation;
+        int x;
+        double score;
+        int evaluated;
+
+        Candidate(int columns, int rows) {
+            afterFirst = new Board(columns, rows);
+            afterSecond = new Board(columns, rows);
+        }
+
+        @Override
+        protected void compute() {
+            evaluate();
+        }
+
+        void evaluate() {
+            evaluated = 1;
+            score = Double.NEGATIVE_INFINITY;
+            afterFirst.copyFrom(board);
+            int firstLines = drop(afterFirst, type, rotation, x, gravity, ticksPerInput);
+            if (firstLines < 0) return;
+
+            double best = Double.NEGATIVE_INFINITY;
+            for (int r = 0; r < DISTINCT_ROTATIONS[nextType]; r++) {
+                int width = PieceShapes.width(nextType, r);
+                for (int nx = 0; nx + width <= columns; nx++) {
+                    afterSecond.copyFrom(afterFirst);
+                    int secondLines = drop(afterSecond, nextType, r, nx, gravity, ticksPerInput);
+                    evaluated++;
+                    if (secondLines >= 0) {
+                        best = Math.max(best, Bot.evaluate(afterSecond, firstLines + secondLines));
+                    }
+                }
+            }
+            // Si la siguiente no cabe en ningún sitio la partida acabaría: solo como último recurso
+            score = best > Double.NEGATIVE_INFINITY ? best : Bot.evaluate(afterFirst, firstLines) - 1e6;
+        }
+    }
+
+    /** Reparte los candidatos entre los hilos del pool; las tareas se reutilizan en cada búsqueda. */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            for (int i = 1; i < candidateCount; i++) {
+                candidates[i].reinitialize();
+                candidates[i].fork();
+            }
+            candidates[0].evaluate();
+            // En orden inverso: la última tarea bifurcada es la primera que este hilo puede recuperar
+            for (int i = candidateCount - 1; i >= 1; i--) {
+                candidates[i].join();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.alex.tetris;
+
+/**
+ * Convierte las decisiones del {@link Bot} en entradas: al aparecer cada pieza busca su destino
+ * y luego, desde ese mismo tick y una entrada cada {@code ticksPerInput} ticks, gira, se desplaza
+ * y la deja caer. La búsqueda sabe cuánto cae la pieza entre entradas con la gravedad del nivel.
+ * Si un giro o un desplazamiento no avanza (la pieza está bloqueada) la suelta donde esté.
+ */
+public class BotPolicy implements InputPolicy {
+    private final Bot bot;
+    private final int ticksPerInput;
+
+    private int plannedPieces = -1; // Piezas colocadas cuando se planificó la pieza actual
+    private int target;             // Destino empaquetado con TetrisPiece.pack
+    private int inputsLeft;         // Límite de entradas antes de soltar la pieza sin más
+    private int wait;
+
+    /** @param ticksPerInput ticks entre entradas; 1 juega lo más rápido posible */
+    public BotPolicy(Bot bot, int ticksPerInput) {
+        if (ticksPerInput < 1) {
+            throw new IllegalArgumentException("ticksPerInput must be at least 1: " + ticksPerInput);
+        }
+        this.bot = bot;
+        this.ticksPerInput = ticksPerInput;
+    }
+
+    @Override
+    public void reset(TetrisEngine engine) {
+        plannedPieces = -1;
+        wait = 0;
+    }
+
+    @Override
+    public int nextInput(TetrisEngine engine) {
+        TetrisPiece piece = engine.getCurrentPiece();
+        if (engine.getPiecesPlaced() != plannedPieces) {
+            plannedPieces = engine.getPiecesPlaced();
+            target = bot.search(engine.getBoard(), piece.type, engine.getNextPiece().type,
+                engine.getGravity(), ticksPerInput)
+                ? bot.getTarget()
+                : piece.pack(); // No cabe en ningún sitio: se suelta tal cual
+            inputsLeft = PieceShapes.ROTATIONS + engine.getBoard().getColumns();
+            wait = 0; // Con gravedad alta cada tick cuenta: la primera entrada va en cuanto aparece
+        }
+
+        if (wait > 0) {
+            wait--;
+            return NONE;
+        }
+        wait = ticksPerInput - 1;
+
+        if (inputsLeft-- <= 0) return TetrisEngine.INPUT_HARD_DROP;
+        if (piece.rotation != TetrisPiece.rotation(target)) return TetrisEngine.INPUT_ROTATE;
+        if (piece.x < TetrisPiece.x(target)) return TetrisEngine.INPUT_MOVE_RIGHT;
+        if (piece.x > TetrisPiece.x(target)) return TetrisEngine.INPUT_MOVE_LEFT;
+        return TetrisEngine.INPUT_HARD_DROP;
+    }
+
+    public Bot getBot() {
+        return bot;
+    }
+}
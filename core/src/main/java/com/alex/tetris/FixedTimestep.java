@@ -0,0 +1,53 @@
+package com.alex.tetris;
+
+/**
+ * Planificador de pasos fijos: acumula el tiempo real de cada frame y dice cuántos ticks de
+ * simulación hay que ejecutar, de forma que el juego avanza igual a 30 Hz que a 240 Hz.
+ * Si un frame tarda demasiado el tiempo extra se descarta (límite contra la "espiral de la muerte").
+ */
+public class FixedTimestep {
+    private final double stepSeconds;
+    private double maxFrameSeconds;
+    private double accumulator;
+
+    /**
+     * @param ticksPerSecond frecuencia de la simulación
+     * @param maxFrameSeconds tiempo máximo de un frame que se simula; el resto se pierde
+     */
+    public FixedTimestep(int ticksPerSecond, float maxFrameSeconds) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+        }
+        this.stepSeconds = 1.0 / ticksPerSecond;
+        this.maxFrameSeconds = maxFrameSeconds;
+    }
+
+    /** Cambia el límite por frame; con dibujado bajo demanda los frames pueden estar más separados. */
+    public void setMaxFrameSeconds(float maxFrameSeconds) {
+        this.maxFrameSeconds = maxFrameSeconds;
+    }
+
+    /** Añade el tiempo del frame y devuelve cuántos ticks hay que ejecutar ahora. */
+    public int advance(float delta) {
+        accumulator += Math.min(delta, maxFrameSeconds);
+        int steps = (int) (accumulator / stepSeconds);
+        accumulator -= steps * stepSeconds;
+        return steps;
+    }
+
+    /**
+     * Fracción (0..1) del siguiente tick ya transcurrida, para interpolar el dibujo entre el
+     * estado del último tick y el siguiente.
+     */
+    public float getAlpha() {
+        return (float) (accumulator / stepSeconds);
+    }
+
+    public float getStepSeconds() {
+        return (float) stepSeconds;
+    }
+
+    public void reset() {
+        accumulator = 0;
+    }
+}
@@ -0,0 +1,330 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.StringBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Perfilador de frames para diagnosticar tirones sin conectar un profiler: mide en CPU cada fase
+ * del frame (entrada, simulación, tablero, piezas, HUD, Stage, pausa), cuenta llamadas de dibujo
+ * del SpriteBatch, binds de textura (con GLProfiler) y recolecciones del GC, y dibuja un resumen con
+ * el histograma de tiempos de frame y sus percentiles p50/p99.
+ *
+ * <p>Mientras está activo guarda los últimos {@link #CSV_FRAMES} frames; al desactivarlo se
+ * escriben en un CSV en {@link #CSV_DIRECTORY}. Con una {@link GameTelemetry} las fases se miden
+ * también con el panel oculto y se le envían al terminar cada frame. Sin panel ni telemetría, cada
+ * llamada solo comprueba un booleano.
+ */
+public class FrameProfiler {
+    public static final int INPUT = 0;
+    public static final int UPDATE = 1;
+    public static final int BOARD = 2;
+    public static final int PIECES = 3;
+    public static final int HUD = 4;
+    public static final int STAGE = 5;
+    public static final int PAUSE = 6;
+    public static final int PHASES = 7;
+    private static final String[] PHASE_NAMES = {"input", "update", "board", "pieces", "hud", "stage", "pause"};
+
+    public static final String CSV_DIRECTORY = "profiles/";
+    public static final int CSV_FRAMES = 3600; // Un minuto a 60 fps
+
+    /** Estadísticas del recolector; solo las da el launcher de escritorio (MXBeans). */
+    public interface GcStats {
+        long getCollectionCount();
+
+        long getCollectionTimeMillis();
+    }
+
+    // Columnas del CSV: tiempo de frame, fases, render calls, binds, draw calls, GCs y ms de GC
+    private static final int COLUMNS = PHASES + 6;
+    private static final int FRAME_COLUMN = 0;
+    private static final int RENDER_CALLS_COLUMN = PHASES + 1;
+
+    private static final int WINDOW = 240;          // Frames del histograma y los percentiles
+    private static final int BUCKETS = 25;
+    private static final long BUCKET_NANOS = 2_000_000L; // 2 ms por barra; la última acumula el resto
+    private static final float REFRESH_SECONDS = 0.25f;
+
+    private final GcStats gc;
+    private final BitmapFontCache text;
+    private final StringBuilder line = new StringBuilder(512);
+    private GLProfiler glProfiler;
+    private GameTelemetry telemetry;
+    private boolean enabled;
+    private boolean measuring; // Panel visible o telemetría activa
+
+    // Frame actual
+    private final long[] phaseNanos = new long[PHASES];
+    private int phase = -1;
+    private long phaseStart;
+    private long frameStart;
+    private int renderCalls;
+    private long lastGcCount, lastGcMillis;
+
+    // Ventana móvil para el histograma y los percentiles
+    private final long[] window = new long[WINDOW];
+    private final long[] sorted = new long[WINDOW];
+    private final int[] buckets = new int[BUCKETS];
+    private int windowSize, windowNext;
+
+    // Promedios desde el último refresco del texto
+    private final long[] phaseTotals = new long[PHASES];
+    private int refreshFrames;
+    private float refreshTime;
+    private long gcCount, gcMillis;
+
+    // Frames para el CSV, fila tras fila; se reserva la primera vez que se activa
+    private long[] rows;
+    private int rowCount, rowNext;
+
+    public FrameProfiler(BitmapFont font, GcStats gc) {
+        this.gc = gc;
+        this.text = font.newFontCache();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Envía las fases de cada frame a {@code telemetry} (null para dejar de hacerlo). */
+    public void setTelemetry(GameTelemetry telemetry) {
+        this.telemetry = telemetry;
+        measuring = enabled || telemetry != null;
+    }
+
+    /** Activa o desactiva el perfilador; al desactivarlo exporta los frames grabados. */
+    public void toggle() {
+        if (enabled) {
+            disable();
+            export();
+        } else {
+            enable();
+        }
+    }
+
+    private void enable() {
+        if (rows == null) rows = new long[CSV_FRAMES * COLUMNS];
+        if (glProfiler == null) glProfiler = new GLProfiler(Gdx.graphics);
+        glProfiler.enable();
+        glProfiler.reset();
+        enabled = true;
+        measuring = true;
+        windowSize = windowNext = 0;
+        rowCount = rowNext = 0;
+        frameStart = 0;
+        phase = -1;
+        resetRefresh();
+        gcCount = gcMillis = 0;
+        if (gc != null) {
+            lastGcCount = gc.getCollectionCount();
+            lastGcMillis = gc.getCollectionTimeMillis();
+        }
+        refreshText();
+    }
+
+    /** Desactiva el perfilador sin exportar (al ocultar o liberar la pantalla). */
+    public void disable() {
+        if (!enabled) return;
+        enabled = false;
+        measuring = telemetry != null;
+        glProfiler.disable();
+    }
+
+    /** Empieza un frame; el tiempo de frame del panel es el que pasa entre dos llamadas. */
+    public void beginFrame() {
+        if (!measuring) return;
+        long now = System.nanoTime();
+        if (enabled && frameStart != 0) {
+            record(now - frameStart);
+        }
+        frameStart = now;
+        Arrays.fill(phaseNanos, 0);
+        renderCalls = 0;
+        phase = -1;
+        if (telemetry != null) telemetry.frameBegin();
+    }
+
+    /** Termina la fase en curso y empieza la indicada. */
+    public void phase(int next) {
+        if (!measuring) return;
+        long now = System.nanoTime();
+        if (phase >= 0) phaseNanos[phase] += now - phaseStart;
+        phase = next;
+        phaseStart = now;
+    }
+
+    /** Termina la fase en curso y con ella el trabajo del frame. */
+    public void endFrame() {
+        if (!measuring) return;
+        if (phase >= 0) {
+            phaseNanos[phase] += System.nanoTime() - phaseStart;
+            phase = -1;
+        }
+        if (telemetry != null) telemetry.frameEnd(phaseNanos, renderCalls);
+    }
+
+    /** Suma las llamadas de dibujo de un batch.end() (SpriteBatch.renderCalls). */
+    public void addRenderCalls(int calls) {
+        if (measuring) renderCalls += calls;
+    }
+
+    private void record(long frameNanos) {
+        long collections = 0, collectionMillis = 0;
+        if (gc != null) {
+            long count = gc.getCollectionCount();
+            long millis = gc.getCollectionTimeMillis();
+            collections = count - lastGcCount;
+            collectionMillis = millis - lastGcMillis;
+            lastGcCount = count;
+            lastGcMillis = millis;
+        }
+        gcCount += collections;
+        gcMillis += collectionMillis;
+
+        int row = rowNext * COLUMNS;
+        rows[row + FRAME_COLUMN] = frameNanos;
+        System.arraycopy(phaseNanos, 0, rows, row + 1, PHASES);
+        rows[row + RENDER_CALLS_COLUMN] = renderCalls;
+        rows[row + RENDER_CALLS_COLUMN + 1] = glProfiler.getTextureBindings();
+        rows[row + RENDER_CALLS_COLUMN + 2] = glProfiler.getDrawCalls();
+        rows[row + RENDER_CALLS_COLUMN + 3] = collections;
+        rows[row + RENDER_CALLS_COLUMN + 4] = collectionMillis;
+        rowNext = (rowNext + 1) % CSV_FRAMES;
+        rowCount = Math.min(rowCount + 1, CSV_FRAMES);
+        glProfiler.reset();
+
+        window[windowNext] = frameNanos;
+        windowNext = (windowNext + 1) % WINDOW;
+        windowSize = Math.min(windowSize + 1, WINDOW);
+
+        for (int i = 0; i < PHASES; i++) phaseTotals[i] += phaseNanos[i];
+        refreshFrames++;
+        refreshTime += frameNanos / 1e9f;
+        if (refreshTime >= REFRESH_SECONDS) {
+            refreshText();
+            resetRefresh();
+        }
+    }
+
+    private void resetRefresh() {
+        Arrays.fill(phaseTotals, 0);
+        refreshFrames = 0;
+        refreshTime = 0;
+    }
+
+    // Texto e histograma; se rehacen unas pocas veces por segundo
+    private void refreshText() {
+        Arrays.fill(buckets, 0);
+        for (int i = 0; i < windowSize; i++) {
+            sorted[i] = window[i];
+            buckets[(int) Math.min(window[i] / BUCKET_NANOS, BUCKETS - 1)]++;
+        }
+        Arrays.sort(sorted, 0, windowSize);
+
+        line.setLength(0);
+        line.append("Frame p50 ");
+        appendMillis(line, percentile(0.50f));
+        line.append(" ms  p99 ");
+        appendMillis(line, percentile(0.99f));
+        line.append(" ms\n");
+        for (int i = 0; i < PHASES; i++) {
+            line.append(PHASE_NAMES[i]).append(' ');
+            appendMillis(line, refreshFrames > 0 ? phaseTotals[i] / refreshFrames : 0);
+            line.append(" ms\n");
+        }
+        int last = ((rowNext + CSV_FRAMES - 1) % CSV_FRAMES) * COLUMNS;
+        if (rowCount > 0) {
+            line.append("render calls ").append(rows[last + RENDER_CALLS_COLUMN])
+                .append("  binds ").append(rows[last + RENDER_CALLS_COLUMN + 1])
+                .append("  draws ").append(rows[last + RENDER_CALLS_COLUMN + 2]).append('\n');
+        }
+        if (gc != null) {
+            line.append("GC ").append(gcCount).append("  ").append(gcMillis).append(" ms");
+        } else {
+            line.append("GC n/d");
+        }
+        text.setText(line, 0, 0);
+    }
+
+    private long percentile(float p) {
+        if (windowSize == 0) return 0;
+        return sorted[Math.min(windowSize - 1, (int) (p * windowSize))];
+    }
+
+    // Milisegundos con dos decimales sin pasar por float ni String
+    private static void appendMillis(StringBuilder out, long nanos) {
+        long hundredths = nanos / 10_000;
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) out.append('0');
+        out.append(fraction);
+    }
+
+    /** Dibuja el panel con la esquina superior izquierda en (x, y); debe llamarse entre begin() y end(). */
+    public void draw(Batch batch, TextureRegion white, float x, float y) {
+        if (!enabled) return;
+        float width = 260;
+        float textHeight = 12 * 18;
+        float chartHeight = 60;
+        float height = textHeight + chartHeight + 20;
+
+        batch.setColor(0, 0, 0, 0.75f);
+        batch.draw(white, x, y - height, width, height);
+
+        // Histograma de tiempos de frame: barras de 2 ms, altura relativa a la más alta
+        int highest = 1;
+        for (int count : buckets) highest = Math.max(highest, count);
+        float barWidth = (width - 10) / BUCKETS;
+        float baseline = y - height + 5;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (buckets[i] == 0) continue;
+            // Verde hasta 16 ms (60 fps), amarillo hasta 33 ms, rojo por encima
+            if (i < 8) batch.setColor(Color.GREEN);
+            else if (i < 16) batch.setColor(Color.YELLOW);
+            else batch.setColor(Color.RED);
+            batch.draw(white, x + 5 + i * barWidth, baseline, barWidth - 1, chartHeight * buckets[i] / highest);
+        }
+        batch.setColor(Color.WHITE);
+
+        text.setPosition(x + 5, y - 5);
+        text.draw(batch);
+    }
+
+    /** Escribe los frames grabados en un CSV nuevo y devuelve el fichero, o null si no había ninguno. */
+    public FileHandle export() {
+        if (rowCount == 0) return null;
+        java.lang.StringBuilder csv = new java.lang.StringBuilder(rowCount * COLUMNS * 8);
+        csv.append("frame,frame_ms");
+        for (String name : PHASE_NAMES) csv.append(',').append(name).append("_ms");
+        csv.append(",render_calls,texture_binds,draw_calls,gc_count,gc_ms\n");
+
+        int first = (rowNext - rowCount + CSV_FRAMES) % CSV_FRAMES;
+        for (int i = 0; i < rowCount; i++) {
+            int row = ((first + i) % CSV_FRAMES) * COLUMNS;
+            csv.append(i);
+            for (int column = 0; column < COLUMNS; column++) {
+                csv.append(',');
+                if (column <= PHASES) {
+                    csv.append(rows[row + column] / 1e6);
+                } else {
+                    csv.append(rows[row + column]);
+                }
+            }
+            csv.append('\n');
+        }
+
+        FileHandle file = Gdx.files.local(CSV_DIRECTORY + "frames-" + System.currentTimeMillis() + ".csv");
+        file.writeString(csv.toString(), false);
+        Gdx.app.log("Profiler", rowCount + " frames guardados en " + file.path());
+        return file;
+    }
+}
@@ -0,0 +1,27 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Recursos del juego cargados con AssetManager. Todo se pone en cola al arrancar y se carga
+ * en segundo plano mientras se muestra el menú (ver MainMenuScreen).
+ */
+public final class GameAssets {
+    public static final String PLACE_SOUND = "place.mp3";
+    public static final String CLEAR_SOUND = "clear.mp3";
+
+    private GameAssets() {
+    }
+
+    /** Crea el AssetManager con el loader del atlas procedural y todos los recursos en cola. */
+    public static AssetManager create() {
+        AssetManager assets = new AssetManager();
+        assets.setLoader(GameAtlas.class, new GameAtlas.Loader(assets.getFileHandleResolver()));
+
+        assets.load(GameAtlas.ASSET_NAME, GameAtlas.class);
+        assets.load(PLACE_SOUND, Sound.class);
+        assets.load(CLEAR_SOUND, Sound.class);
+        return assets;
+    }
+}
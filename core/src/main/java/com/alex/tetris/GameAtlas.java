@@ -0,0 +1,175 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Atlas generado al arrancar con todas las texturas procedurales del juego (celda vacía,
+ * fantasma, colores de las piezas, blanco) y los glifos de la fuente por defecto en una sola
+ * página, para que SpriteBatch no tenga que cambiar de textura entre celdas.
+ *
+ * <p>Se construye en dos fases para poder cargarlo con AssetManager (ver {@link Loader}):
+ * {@link #pack} dibuja y empaqueta los Pixmaps en cualquier hilo y el constructor sube la
+ * página a la GPU en el hilo de render.
+ */
+public class GameAtlas implements Disposable {
+    /** Nombre con el que se carga en el AssetManager; el atlas no viene de ningún fichero. */
+    public static final String ASSET_NAME = "game.atlas.procedural";
+
+    // Color de cada tipo de pieza, por índice (igual que PieceShapes)
+    public static final Color[] PIECE_COLORS = {
+        Color.CYAN,
+        Color.BLUE,
+        Color.ORANGE,
+        Color.YELLOW,
+        Color.GREEN,
+        Color.RED,
+        Color.GOLD
+    };
+
+    private static final int PAGE_SIZE = 512;
+    private static final String FONT_PATH = "com/badlogic/gdx/utils/lsans-15";
+
+    public final TextureRegion cell;
+    public final TextureRegion ghost;
+    public final TextureRegion white;
+    public final TextureRegion[] pieces;
+    private final TextureRegion fontRegion;
+    private final TextureAtlas atlas;
+
+    public GameAtlas(Color[] pieceColors, int cellSize) {
+        this(pack(pieceColors, cellSize), pieceColors.length);
+    }
+
+    /** Sube a la GPU una página ya empaquetada con {@link #pack} y libera el packer. */
+    public GameAtlas(PixmapPacker packer, int pieceCount) {
+        atlas = packer.generateTextureAtlas(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear, false);
+        packer.dispose();
+
+        cell = atlas.findRegion("cell");
+        ghost = atlas.findRegion("ghost");
+        white = atlas.findRegion("white");
+        fontRegion = atlas.findRegion("font");
+        pieces = new TextureRegion[pieceCount];
+        for (int i = 0; i < pieceCount; i++) {
+            pieces[i] = atlas.findRegion("piece" + i);
+        }
+    }
+
+    /** Fuente por defecto de libGDX con los glifos en la página del atlas; cada llamada tiene su propia escala. */
+    public BitmapFont newFont() {
+        return new BitmapFont(new BitmapFont.BitmapFontData(Gdx.files.classpath(FONT_PATH + ".fnt"), false),
+            fontRegion, false);
+    }
+
+    /** Dibuja y empaqueta todas las regiones sin tocar OpenGL, así que puede hacerse fuera del hilo de render. */
+    public static PixmapPacker pack(Color[] pieceColors, int cellSize) {
+        // Relleno con borde duplicado para que el filtrado no mezcle regiones vecinas
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, true);
+
+        pack(packer, "cell", createCellPixmap(cellSize));
+        pack(packer, "ghost", createGhostPixmap(cellSize));
+        pack(packer, "white", createSolidPixmap(4, Color.WHITE));
+        for (int i = 0; i < pieceColors.length; i++) {
+            pack(packer, "piece" + i, createColoredPixmap(cellSize, pieceColors[i]));
+        }
+        pack(packer, "font", new Pixmap(Gdx.files.classpath(FONT_PATH + ".png")));
+        return packer;
+    }
+
+    // El packer copia los píxeles a su página, el original ya no hace falta
+    private static void pack(PixmapPacker packer, String name, Pixmap pixmap) {
+        packer.pack(name, pixmap);
+        pixmap.dispose();
+    }
+
+    private static Pixmap createCellPixmap(int size) {
+        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+
+        // Rellenar con color gris (R=0.5, G=0.5, B=0.5, Alpha=1)
+        pixmap.setColor(0.5f, 0.5f, 0.5f, 1f);
+        pixmap.fill();
+
+        // Dibujar borde blanco
+        pixmap.setColor(1, 1, 1, 1); // Blanco sólido
+        pixmap.drawRectangle(0, 0, size, size);
+        return pixmap;
+    }
+
+    private static Pixmap createGhostPixmap(int size) {
+        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        pixmap.setColor(1, 1, 1, 0.3f); // Blanco semitransparente
+        pixmap.fill();
+        pixmap.setColor(1, 1, 1, 0.6f);
+        pixmap.drawRectangle(0, 0, size, size);
+        return pixmap;
+    }
+
+    private static Pixmap createColoredPixmap(int size, Color color) {
+        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        pixmap.setColor(color);
+        pixmap.fill();
+        pixmap.setColor(Color.WHITE);
+        pixmap.drawRectangle(0, 0, size, size);
+        return pixmap;
+    }
+
+    private static Pixmap createSolidPixmap(int size, Color color) {
+        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        pixmap.setColor(color);
+        pixmap.fill();
+        return pixmap;
+    }
+
+    @Override
+    public void dispose() {
+        atlas.dispose();
+    }
+
+    /** Carga asíncrona para AssetManager: empaqueta en el hilo del loader y sube la textura en el de render. */
+    public static class Loader extends AsynchronousAssetLoader<GameAtlas, Loader.Parameters> {
+        public static class Parameters extends AssetLoaderParameters<GameAtlas> {
+            public Color[] pieceColors = PIECE_COLORS;
+            public int cellSize = TetrisGame.CELL_SIZE;
+        }
+
+        private PixmapPacker packer;
+
+        public Loader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameters) {
+            Parameters params = parameters != null ? parameters : new Parameters();
+            packer = pack(params.pieceColors, params.cellSize);
+        }
+
+        @Override
+        public GameAtlas loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameters) {
+            Parameters params = parameters != null ? parameters : new Parameters();
+            GameAtlas atlas = new GameAtlas(packer, params.pieceColors.length);
+            packer = null;
+            return atlas;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameters) {
+            return null;
+        }
+    }
+}
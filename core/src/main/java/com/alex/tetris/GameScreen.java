@@ -3,19 +3,23 @@ package com.alex.tetris;
 import static com.alex.tetris.TetrisGame.*;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -23,262 +27,385 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
-import java.util.Arrays;
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pantalla de juego. TetrisGame tiene una sola instancia que se reutiliza en cada partida,
+ * repetición o demo: los recursos se crean una vez en {@link #prepare()} y show() solo reinicia
+ * el estado de la partida.
+ *
+ * <p>Todo se dibuja desde una {@link GameSnapshot}: una copia del motor tras avanzar el frame o,
+ * con {@link TetrisGame#simulationThread}, la última que ha publicado el {@link SimulationThread}.
+ *
+ * <p>Con {@link TetrisGame#lowPower} se dibuja bajo demanda: tras cada frame se pide el siguiente
+ * para cuando la gravedad vaya a bajar la pieza, y antes solo si hay entrada o animación.
+ */
 public class GameScreen implements Screen {
+    /** Repetición de la última partida terminada. */
+    public static final String LAST_REPLAY_PATH = "replays/last.trpl";
+
     private final TetrisGame game;
-    private SpriteBatch batch;
+    private boolean prepared = false;
+    private boolean prewarmed = false;
+    private long transitionStart = 0;
+    private final SpriteBatch batch; // El del juego, compartido con el menú y los Stages
     private OrthographicCamera camera;
     private Viewport viewport;
     private Stage stage;
 
-    private Texture pauseOverlay;
     private Stage pauseStage;
     private boolean isPaused = false;
+    // En pausa el juego no cambia: se dibuja una vez con el velo oscuro en un FrameBuffer del
+    // tamaño de la pantalla y después solo se copia; se crea en la primera pausa
+    private FrameBuffer pausedFrame;
+    private TextureRegion pausedRegion;
+    private boolean pausedFrameValid = false;
+    private final Matrix4 screenProjection = new Matrix4();
     private Skin skin;
 
 
-    // Otras variables de texturas
-    private Texture cellTexture;
-    private Texture[] pieceTextures;
-    // ghost position
-    private Texture ghostPieceTexture; // Textura semitransparente
-    private TetrisPiece ghostPiece;   // Pieza fantasma
-    // next piece
-    private TetrisPiece nextPiece;
+    // Todas las texturas (y los glifos de la fuente) comparten la página de este atlas
+    private GameAtlas atlas;
+    // Celdas fijadas, cacheadas en un FrameBuffer que solo se repinta cuando cambia el tablero;
+    // null si el tablero no cabe en una textura y se dibuja directamente, solo la parte visible
+    private BoardLayer boardLayer;
+    private static final int BOARD_LAYER_MAX_SIZE = 2048; // Píxeles; menor que GL_MAX_TEXTURE_SIZE en cualquier GPU
+
+    // Tablero en coordenadas de mundo. Si no cabe en pantalla la cámara del mundo se aleja hasta
+    // ver todas las columnas y sigue a la pieza en vertical; el HUD usa siempre la cámara fija
+    private OrthographicCamera worldCamera;
+    private boolean scrolling = false;
+    private float boardX, boardY;
+    private static final float CAMERA_FOLLOW_SPEED = 6f; // Fracción de la distancia recorrida por segundo
+    private static final float SCROLL_MARGIN = 20f;
+    // Estadísticas del último frame del batch, para comprobar cuántas llamadas de dibujo hay
+    private int lastRenderCalls;
+    private int maxSpritesInBatch;
+    // Tiempos por fase del frame; F3 o un toque con tres dedos lo muestra y al ocultarlo guarda un CSV
+    private FrameProfiler profiler;
+    private boolean profilerGesture = false;
 
     // Sistema de puntuación
-    private int score = 0;
     private BitmapFont font;
+    private BitmapFont skinFont;
     private Preferences prefs;
     private int highScore = 0;
-
-
-    // Piezas y colores
-    private static final Color[] PIECE_COLORS = {
-        Color.CYAN,
-        Color.BLUE,
-        Color.ORANGE,
-        Color.YELLOW,
-        Color.GREEN,
-        Color.RED,
-        Color.GOLD
-    };
-
-    private static final int[][][] SHAPES = {
-        {{1, 1, 1, 1}},             // I (índice 0)
-        {{1, 1, 1}, {1, 0, 0}},     // L (índice 1)
-        {{1, 1, 1}, {0, 0, 1}},     // J (índice 2)
-        {{1, 1}, {1, 1}},           // O (índice 3)
-        {{1, 1, 0}, {0, 1, 1}},     // S (índice 4)
-        {{0, 1, 1}, {1, 1, 0}},     // Z (índice 5)
-        {{1, 1, 1}, {0, 1, 0}}     // .|. (índice 6)
-    };
-
-    // Estado del juego
-    private TetrisPiece currentPiece;
-    private int[][] board = new int[BOARD_ROWS][BOARD_COLUMNS];
-    private float dropTimer = 0;
-    private float dropInterval = DEFAULT_DROP_INTERVAL;
-
-    // Control táctil
-    private final Vector3 initialTouchPos = new Vector3();
-    private float touchTime = 0;
-    private boolean rotationPerformed = false;
-    // Desliz
-    private final float MAX_TAP_DISTANCE = 15f;
-    private final float TAP_MAX_DURATION = 0.3f;
-    // Desliz horizontal
-    private final float MIN_SWIPE_DISTANCE = 40f;
-    // Desliz vertical
-    private boolean fastDropActive = false;
-    private final float MIN_SWIPE_VERTICAL_DISTANCE = 60f; // Píxeles para activar caída rápida
-    private final float FAST_DROP_SPEED = 0.02f; // Intervalo de caída rápida (más pequeño = más rápido)
+    // Textos del HUD ya maquetados: solo se rehacen cuando cambia el valor
+    private Hud hud;
+
+
+
+    // Estado del juego (las reglas viven en TetrisEngine); el motor se reutiliza entre partidas
+    // mientras no cambien las dimensiones del tablero
+    private TetrisEngine engine;
+    private int columns = BOARD_COLUMNS;
+    private int rows = BOARD_ROWS;
+    private int nextColumns = BOARD_COLUMNS; // Dimensiones pedidas para la próxima partida
+    private int nextRows = BOARD_ROWS;
+    private final FixedTimestep timestep = new FixedTimestep(TICKS_PER_SECOND, MAX_FRAME_TIME);
+
+    // Lo que se dibuja. Los sonidos y el redibujado del tablero salen de comparar sus contadores
+    // con los del frame anterior, así que valen igual con el motor en este hilo o en otro
+    private GameSnapshot snapshot; // Copia propia cuando el motor avanza en este hilo
+    private GameSnapshot view;
+    private int shownPieces;
+    private int shownLines;
+    // Hilo de simulación; solo en partida normal y si el launcher lo pide. Mientras corre, el
+    // motor es suyo: las entradas van por su cola y aquí solo se leen instantáneas
+    private SimulationThread simulation;
+
+    // Repeticiones: en partida normal se graba cada entrada; en modo repetición se reproducen
+    private Replay recording;
+    private Replay playback;
+    private ReplayPlayer player;
+    private int playbackSpeed = 1; // Ticks de la repetición por tick de reloj
+
+    // Modo demo: el bot juega solo y al perder empieza otra partida
+    private static final int DEMO_TICKS_PER_INPUT = 6;
+    private InputPolicy autopilot;
+    private BotPolicy demoPolicy; // Se crea con el primer modo demo y se reutiliza
+    private float botReportTime = 0;
+    private long botReportPlacements = 0;
+
+    // Toques y teclas del jugador, con su marca de tiempo; se aplican en el tick que les toca.
+    // El Stage va primero para que el botón de pausa se lleve sus toques
+    private InputPipeline playerInput;
+    private InputMultiplexer gameInput;
+    public static final String DAS_KEY = "das"; // Preferencias, en milisegundos
+    public static final String ARR_KEY = "arr";
+    public static final String START_LEVEL_KEY = "startLevel";
 
     // Sonidos
     private Sound placeSound;
     private Sound clearLineSound;
 
+    // Sonidos y atlas son del AssetManager del juego (cargados durante el menú); si aún no
+    // han terminado de cargarse, finishLoadingAsset espera solo a ese recurso
     private void initSounds() {
-        placeSound = Gdx.audio.newSound(Gdx.files.internal("place.mp3"));
-        clearLineSound = Gdx.audio.newSound(Gdx.files.internal("clear.mp3"));
+        placeSound = game.assets.finishLoadingAsset(GameAssets.PLACE_SOUND);
+        clearLineSound = game.assets.finishLoadingAsset(GameAssets.CLEAR_SOUND);
     }
 
     private void initTextures() {
-        cellTexture = createCellTexture(CELL_SIZE);
-        ghostPieceTexture = createGhostTexture(CELL_SIZE);
-        pieceTextures = new Texture[PIECE_COLORS.length];
-        for (int i = 0; i < PIECE_COLORS.length; i++) {
-            pieceTextures[i] = createColoredTexture(CELL_SIZE, PIECE_COLORS[i]);
-        }
+        atlas = game.assets.finishLoadingAsset(GameAtlas.ASSET_NAME);
+        createBoardLayer();
     }
 
-    private void handleInput() {
-        handleTouchInput();
+    // Motor y capa del tablero para las dimensiones de la próxima partida
+    private void setupBoard(int newColumns, int newRows) {
+        if (engine != null && newColumns == columns && newRows == rows) return;
+        columns = newColumns;
+        rows = newRows;
+        engine = new TetrisEngine(columns, rows, System.nanoTime());
+        engine.setTelemetry(game.telemetry);
+        snapshot = new GameSnapshot(columns, rows);
+        if (boardLayer != null) boardLayer.dispose();
+        createBoardLayer();
     }
 
-    private void updateGame() {
-        updateGhostPiece();
-        dropTimer += Gdx.graphics.getDeltaTime();
-        if (dropTimer >= dropInterval) {
-            movePieceDown();
-            dropTimer = 0;
-        }
+    private void createBoardLayer() {
+        boolean fits = columns * CELL_SIZE <= BOARD_LAYER_MAX_SIZE && rows * CELL_SIZE <= BOARD_LAYER_MAX_SIZE;
+        boardLayer = fits ? new BoardLayer(game.resources, columns, rows, CELL_SIZE) : null;
     }
 
-    private void draw() {
-        Gdx.gl.glClearColor(0, 0, 0, 1);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+    private void markBoardDirty() {
+        if (boardLayer != null) boardLayer.markDirty();
+    }
 
-        camera.update();
-        batch.setProjectionMatrix(camera.combined);
+    // Centra el tablero si cabe en pantalla; si no, lo pone en el origen y la cámara se desplaza
+    private void layoutBoard() {
+        float width = columns * CELL_SIZE;
+        float height = rows * CELL_SIZE;
+        scrolling = width > VIRTUAL_WIDTH || height > VIRTUAL_HEIGHT;
+        if (!scrolling) {
+            boardX = (VIRTUAL_WIDTH - width) / 2;
+            boardY = (VIRTUAL_HEIGHT - height) / 2;
+            worldCamera.zoom = 1;
+            worldCamera.position.set(VIRTUAL_WIDTH / 2, VIRTUAL_HEIGHT / 2, 0);
+        } else {
+            boardX = 0;
+            boardY = 0;
+            worldCamera.zoom = Math.max(1, (width + 2 * SCROLL_MARGIN) / VIRTUAL_WIDTH);
+            worldCamera.position.set(width / 2, targetCameraY(), 0);
+        }
+        worldCamera.update();
+    }
 
-        batch.begin();
-        drawBoard();
-        drawGhostPiece();
-        drawCurrentPiece();
-        drawNextPiece();
+    // Altura de cámara que deja la pieza actual en el tercio superior, sin salirse del tablero
+    private float targetCameraY() {
+        float halfHeight = VIRTUAL_HEIGHT * worldCamera.zoom / 2;
+        float boardHeight = rows * CELL_SIZE;
+        if (boardHeight + 2 * SCROLL_MARGIN <= 2 * halfHeight) return boardY + boardHeight / 2;
+        TetrisPiece piece = view.getCurrentPiece();
+        float pieceY = boardY + piece.y * CELL_SIZE;
+        float y = pieceY - halfHeight / 3;
+        return Math.max(boardY - SCROLL_MARGIN + halfHeight,
+            Math.min(boardY + boardHeight + SCROLL_MARGIN - halfHeight, y));
+    }
 
-        // draw puntuacion
-        font.draw(batch, "Puntos: " + score, 20, VIRTUAL_HEIGHT);
-        font.draw(batch, "Récord: " + highScore, 20, VIRTUAL_HEIGHT - 25);
+    private boolean isCameraMoving() {
+        return scrolling && Math.abs(targetCameraY() - worldCamera.position.y) > 0.5f;
+    }
 
-        batch.end();
+    private void updateCamera(float delta) {
+        if (!scrolling) return;
+        float targetY = targetCameraY();
+        worldCamera.position.y += (targetY - worldCamera.position.y) * Math.min(1, delta * CAMERA_FOLLOW_SPEED);
+        worldCamera.update();
     }
 
-    // Metodos de interacciones
-    private void handleTouchInput() {
-        if (Gdx.input.justTouched()) {
-            initialTouchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
-            camera.unproject(initialTouchPos);
-            touchTime = 0;
-            rotationPerformed = false; // Resetear al nuevo toque
+    private void handleInput() {
+        if (autopilot != null) {
+            // Cualquier toque termina la demo
+            if (Gdx.input.justTouched()) {
+                game.showMenu();
+            }
+            return;
         }
+        if (player != null) {
+            // En la repetición un toque cambia la velocidad: x1, x4, x16
+            if (Gdx.input.justTouched()) {
+                playbackSpeed = playbackSpeed >= 16 ? 1 : playbackSpeed * 4;
+            }
+            return;
+        }
+        // Los movimientos llegan por playerInput; aquí solo la tecla de pausa
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE) || Gdx.input.isKeyJustPressed(Input.Keys.P)) {
+            togglePause();
+        }
+    }
 
-        if (Gdx.input.isTouched()) {
-            touchTime += Gdx.graphics.getDeltaTime();
+    private void updateGame() {
+        if (simulation != null) {
+            // El motor avanza solo en su hilo: le llega lo que ha pasado hasta ahora y aquí se
+            // recoge lo último que ha publicado
+            simulation.sendInput(playerInput, System.nanoTime());
+            view = simulation.latest();
+            // Con abajo mantenido la caída rápida sigue en la pieza nueva (llega en el próximo frame)
+            if (view.getPiecesPlaced() != shownPieces) playerInput.pieceSpawned();
+        } else {
+            // Tantos ticks fijos como correspondan al tiempo real transcurrido
+            int steps = timestep.advance(Gdx.graphics.getDeltaTime());
+            if (player != null) {
+                if (!player.advance(steps * playbackSpeed)) {
+                    finishPlayback();
+                    return;
+                }
+            } else if (autopilot != null) {
+                updateDemo(steps);
+            } else {
+                // Cada tick del frame representa un instante pasado: el último queda a getAlpha()
+                // ticks de ahora. Antes de cada uno se aplica lo ocurrido hasta ese instante
+                playerInput.runTicks(engine, steps, timestep.getAlpha(), System.nanoTime());
+            }
+            snapshot.copyFrom(engine);
+        }
+        checkEvents();
+    }
 
-            Vector3 currentPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-            camera.unproject(currentPos);
+    // Sonidos, tablero sucio y fin de partida según lo que ha cambiado desde el último frame
+    private void checkEvents() {
+        int pieces = view.getPiecesPlaced();
+        int lines = view.getLinesCleared();
+        if (pieces != shownPieces) {
+            markBoardDirty();
+            if (pieces > shownPieces) placeSound.play(0.5f);
+        }
+        if (lines > shownLines) clearLineSound.play(0.8f);
+        shownPieces = pieces;
+        shownLines = lines;
+
+        // La repetición termina en updateGame() y la demo vuelve a empezar en updateDemo()
+        if (view.isGameOver() && player == null && autopilot == null) {
+            handleGameOver();
+        }
+    }
 
-            float deltaX = currentPos.x - initialTouchPos.x;
-            float deltaY = currentPos.y - initialTouchPos.y;
+    private void resetShownEvents() {
+        shownPieces = view.getPiecesPlaced();
+        shownLines = view.getLinesCleared();
+    }
 
-            // Detectar deslizamiento (prioridad sobre rotación)
-            if (Math.abs(deltaX) > MIN_SWIPE_DISTANCE) {
-                movePiece((int)Math.signum(deltaX));
-                initialTouchPos.set(currentPos);
-                rotationPerformed = true;
-            } else if (deltaY < -MIN_SWIPE_VERTICAL_DISTANCE) { // deltaY negativo = hacia abajo
-                activateFastDrop();
-                rotationPerformed = true;
+    private void updateDemo(int steps) {
+        for (int i = 0; i < steps; i++) {
+            int input = autopilot.nextInput(engine);
+            if (input != InputPolicy.NONE) engine.applyInput(input);
+            engine.tick();
+            if (engine.isGameOver()) {
+                engine.reset();
+                autopilot.reset(engine);
+                markBoardDirty();
             }
         }
 
-        // Rotación al finalizar toque (sin deslizamiento)
-        if (!Gdx.input.isTouched() &&
-            touchTime > 0 &&
-            touchTime < TAP_MAX_DURATION &&
-            !rotationPerformed) {
+        // Colocaciones evaluadas por segundo, recalculado una vez por segundo
+        botReportTime += Gdx.graphics.getDeltaTime();
+        if (botReportTime >= 1f) {
+            long placements = ((BotPolicy) autopilot).getBot().getEvaluatedPlacements();
+            hud.setBotPlacementsPerSecond((long) ((placements - botReportPlacements) / botReportTime));
+            botReportPlacements = placements;
+            botReportTime = 0;
+        }
+    }
 
-            Vector3 finalPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-            camera.unproject(finalPos);
+    private void draw() {
+        profiler.phase(FrameProfiler.BOARD);
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-            if (initialTouchPos.dst(finalPos) < MAX_TAP_DISTANCE) {
-                rotatePiece();
-                rotationPerformed = true;
-            }
+        // Solo redibuja la capa del tablero si ha cambiado desde el último frame
+        if (boardLayer != null && boardLayer.update(batch, view.getBoard(), atlas)) {
+            viewport.apply();
         }
-    }
 
-    // Metodos para dibujar piezas en el tablero
+        updateCamera(Gdx.graphics.getDeltaTime());
+        batch.setProjectionMatrix(worldCamera.combined);
 
-    private void activateFastDrop() {
-        fastDropActive = true;
-        dropInterval = FAST_DROP_SPEED; // Cambia la velocidad de caída
-    }
+        batch.begin();
+        drawBoard();
+        profiler.phase(FrameProfiler.PIECES);
+        drawGhostPiece();
+        drawCurrentPiece();
+        // Con el tablero fijo las dos cámaras coinciden y todo va en el mismo lote
+        if (scrolling) batch.setProjectionMatrix(camera.combined);
+        drawNextPiece();
 
-    private void deactivateFastDrop() {
-        fastDropActive = false;
-        dropInterval = DEFAULT_DROP_INTERVAL; // Vuelve a la velocidad normal
+        // draw puntuacion
+        profiler.phase(FrameProfiler.HUD);
+        hud.update(view, highScore);
+        hud.draw(batch);
+
+        batch.end();
+        lastRenderCalls = batch.renderCalls;
+        maxSpritesInBatch = batch.maxSpritesInBatch;
+        profiler.addRenderCalls(batch.renderCalls);
     }
 
-    private void rotatePiece() {
-        Gdx.app.log("DEBUG", "ROTAMOS");
-        if (currentPiece == null) return;
+    // Perfilador de frames
 
-        //  Rotar la matriz de la pieza
-        int[][] rotated = new int[currentPiece.shape[0].length][currentPiece.shape.length];
-        for (int i = 0; i < currentPiece.shape.length; i++) {
-            for (int j = 0; j < currentPiece.shape[0].length; j++) {
-                rotated[j][currentPiece.shape.length - 1 - i] = currentPiece.shape[i][j];
-            }
+    private void updateProfilerToggle() {
+        boolean gesture = Gdx.input.isTouched(2);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3) || (gesture && !profilerGesture)) {
+            profiler.toggle();
         }
+        profilerGesture = gesture;
+    }
 
-        // Probar rotación en 5 posiciones diferentes (wall kicks)
-        int[][] testPositions = {
-            {currentPiece.x, currentPiece.y},     // Posición original
-            {currentPiece.x + 1, currentPiece.y}, // Derecha
-            {currentPiece.x - 1, currentPiece.y}, // Izquierda
-            {currentPiece.x, currentPiece.y - 1}, // Abajo
-            {currentPiece.x, currentPiece.y + 1}  // Arriba
-        };
-
-        for (int[] position : testPositions) {
-            TetrisPiece testPiece = new TetrisPiece(rotated, currentPiece.color);
-            testPiece.x = position[0];
-            testPiece.y = position[1];
-
-            if (!checkCollision(testPiece)) {
-                currentPiece.shape = rotated;
-                currentPiece.x = position[0];
-                currentPiece.y = position[1];
-                Gdx.app.log("ROTATION", "Rotated successfully");
-                return;
-            }
-        }
-        updateGhostPiece();
-
-        Gdx.app.log("ROTATION", "Rotation failed - no valid position");
+    private void drawProfiler() {
+        if (!profiler.isEnabled()) return;
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        profiler.draw(batch, atlas.white, 10, VIRTUAL_HEIGHT - 60);
+        batch.end();
     }
 
+    // Metodos para dibujar piezas en el tablero
+
     private void drawBoard() {
-        float startX = (VIRTUAL_WIDTH - BOARD_COLUMNS * CELL_SIZE) / 2;
-        float startY = (VIRTUAL_HEIGHT - BOARD_ROWS * CELL_SIZE) / 2;
-
-        for (int row = 0; row < BOARD_ROWS; row++) {
-            for (int col = 0; col < BOARD_COLUMNS; col++) {
-                int cellValue = board[row][col];
-                Texture texture;
-
-                if (cellValue == 0) {
-                    texture = cellTexture; // Celda vacía
-                } else {
-                    texture = pieceTextures[cellValue - 1]; // Restamos 1 para obtener el índice correcto
-                }
+        if (boardLayer != null) {
+            boardLayer.draw(batch, boardX, boardY);
+            return;
+        }
 
-                batch.draw(texture,
-                    startX + col * CELL_SIZE,
-                    startY + row * CELL_SIZE);
+        // Tablero enorme: solo las celdas que caen dentro de la vista de la cámara
+        float halfWidth = worldCamera.viewportWidth * worldCamera.zoom / 2;
+        float halfHeight = worldCamera.viewportHeight * worldCamera.zoom / 2;
+        int firstCol = Math.max(0, (int) ((worldCamera.position.x - halfWidth - boardX) / CELL_SIZE));
+        int lastCol = Math.min(columns - 1, (int) ((worldCamera.position.x + halfWidth - boardX) / CELL_SIZE));
+        int firstRow = Math.max(0, (int) ((worldCamera.position.y - halfHeight - boardY) / CELL_SIZE));
+        int lastRow = Math.min(rows - 1, (int) ((worldCamera.position.y + halfHeight - boardY) / CELL_SIZE));
+
+        Board board = view.getBoard();
+        for (int row = firstRow; row <= lastRow; row++) {
+            float y = boardY + row * CELL_SIZE;
+            boolean empty = board.getRowMask(row) == 0;
+            for (int col = firstCol; col <= lastCol; col++) {
+                int cellValue = empty ? 0 : board.getColor(row, col);
+                TextureRegion texture = cellValue == 0 ? atlas.cell : atlas.pieces[cellValue - 1];
+                batch.draw(texture, boardX + col * CELL_SIZE, y);
             }
         }
     }
 
     private void drawCurrentPiece() {
+        TetrisPiece currentPiece = view.getCurrentPiece();
         if (currentPiece != null) {
-            float startX = (VIRTUAL_WIDTH - BOARD_COLUMNS * CELL_SIZE) / 2;
-            float startY = (VIRTUAL_HEIGHT - BOARD_ROWS * CELL_SIZE) / 2;
+            float startX = boardX;
+            float startY = boardY;
 
-            // Encuentra el índice del color para obtener la textura correcta
-            int colorIndex = Arrays.asList(PIECE_COLORS).indexOf(currentPiece.color);
-            Texture pieceTexture = pieceTextures[colorIndex];
+            TextureRegion pieceTexture = atlas.pieces[currentPiece.type];
+            int[][] shape = currentPiece.shape();
 
-            for (int row = 0; row < currentPiece.shape.length; row++) {
-                for (int col = 0; col < currentPiece.shape[row].length; col++) {
-                    if (currentPiece.shape[row][col] == 1) {
+            for (int row = 0; row < shape.length; row++) {
+                for (int col = 0; col < shape[row].length; col++) {
+                    if (shape[row][col] == 1) {
                         int drawX = currentPiece.x + col;
                         int drawY = currentPiece.y + row;
 
@@ -294,26 +421,28 @@ public class GameScreen implements Screen {
     }
 
     private void drawGhostPiece() {
+        TetrisPiece ghostPiece = view.getGhostPiece();
         if (ghostPiece == null) return;
 
-        float startX = (VIRTUAL_WIDTH - BOARD_COLUMNS * CELL_SIZE) / 2;
-        float startY = (VIRTUAL_HEIGHT - BOARD_ROWS * CELL_SIZE) / 2;
+        float startX = boardX;
+        float startY = boardY;
 
-        for (int row = 0; row < ghostPiece.shape.length; row++) {
-            for (int col = 0; col < ghostPiece.shape[row].length; col++) {
-                if (ghostPiece.shape[row][col] != 0) {
+        int[][] shape = ghostPiece.shape();
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < shape[row].length; col++) {
+                if (shape[row][col] != 0) {
                     int drawX = ghostPiece.x + col;
                     int drawY = ghostPiece.y + row;
 
                     if (drawY >= 0) {
                         float posX = startX + drawX * CELL_SIZE;
                         float posY = startY + drawY * CELL_SIZE;
-                        batch.draw(ghostPieceTexture, posX, posY);
+                        batch.draw(atlas.ghost, posX, posY);
                     }
                 }
             }
         }
-        if (fastDropActive) {
+        if (view.isFastDropActive()) {
             batch.setColor(1, 0.5f, 0.5f, 0.7f); // Tono rojizo durante caída rápida
             // Dibuja la pieza fantasma
             batch.setColor(Color.WHITE); // Restablece el color
@@ -321,20 +450,20 @@ public class GameScreen implements Screen {
     }
 
     private void drawNextPiece() {
+        TetrisPiece nextPiece = view.getNextPiece();
         if (nextPiece == null) return;
 
         float previewX = camera.position.x + viewport.getWorldWidth() / 2f - 100;
         float previewY = camera.position.y + viewport.getWorldHeight() / 2f - 150;
-        skin.getFont("default-font").draw(batch, "Siguiente:", previewX, previewY + 65);
 
-        int colorIndex = Arrays.asList(PIECE_COLORS).indexOf(nextPiece.color);
-        Texture texture = pieceTextures[colorIndex];
+        TextureRegion texture = atlas.pieces[nextPiece.type];
+        int[][] shape = nextPiece.shape();
 
-        for (int row = 0; row < nextPiece.shape.length; row++) {
-            for (int col = 0; col < nextPiece.shape[row].length; col++) {
-                if (nextPiece.shape[row][col] != 0) {
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < shape[row].length; col++) {
+                if (shape[row][col] != 0) {
                     float x = previewX + col * (CELL_SIZE / 1.5f);
-                    float y = previewY + (nextPiece.shape.length - 1 - row) * (CELL_SIZE / 1.5f); // Dibuja desde arriba
+                    float y = previewY + (shape.length - 1 - row) * (CELL_SIZE / 1.5f); // Dibuja desde arriba
 
                     batch.draw(texture, x, y, CELL_SIZE / 1.5f, CELL_SIZE / 1.5f);
                 }
@@ -344,17 +473,6 @@ public class GameScreen implements Screen {
 
     // Metodos para crear piezas nuevas y colores
 
-    private Texture createGhostTexture(int size) {
-        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
-        pixmap.setColor(1, 1, 1, 0.3f); // Blanco semitransparente
-        pixmap.fill();
-        pixmap.setColor(1, 1, 1, 0.6f);
-        pixmap.drawRectangle(0, 0, size, size);
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return texture;
-    }
-
     private void createPauseButton() {
         TextButton pauseBtn = new TextButton("II", skin, "pause");
         pauseBtn.getLabel().setFontScale(1.5f);
@@ -376,226 +494,130 @@ public class GameScreen implements Screen {
         stage.addActor(pauseBtn);
     }
 
-    private void updateGhostPiece() {
-        if (currentPiece == null) return;
+    // Fin de partida
 
-        // Copia la pieza actual
-        ghostPiece = new TetrisPiece(currentPiece.shape, currentPiece.color);
-        ghostPiece.x = currentPiece.x;
-        ghostPiece.y = currentPiece.y;
+    private void handleGameOver() {
+        stopSimulation(); // A partir de aquí el motor y la grabación vuelven a ser de este hilo
+        recording.finish(engine.getTickCount(), engine.getScore());
+        saveReplay(recording, Gdx.files.local(LAST_REPLAY_PATH));
 
-        // Simula la caída
-        while (!checkCollision(ghostPiece)) {
-            ghostPiece.y--;
+        int score = engine.getScore();
+        if (score > highScore) {
+            highScore = score;
+            prefs.putInteger(highScoreKey(), highScore);
+            prefs.flush();
         }
-        ghostPiece.y++; // Retrocede un paso al detectar colisión
+        Gdx.app.log("Game", "Game Over!");
+        game.showMenu();
     }
 
-    private Texture createCellTexture(int size) {
-        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
-
-        // Rellenar con color gris (R=0.5, G=0.5, B=0.5, Alpha=1)
-        pixmap.setColor(0.5f, 0.5f, 0.5f, 1f);
-        pixmap.fill();
-
-        // Dibujar borde blanco
-        pixmap.setColor(1, 1, 1, 1); // Blanco sólido
-        pixmap.drawRectangle(0, 0, size, size);
-
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return texture;
-    }
-
-    private Texture createColoredTexture(int size, Color color) {
-        Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        pixmap.setColor(Color.WHITE);
-        pixmap.drawRectangle(0, 0, size, size);
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return texture;
-    }
-
-    // Metodos privados para el juego
-
-    private void movePiece(int direction) {
-        if (currentPiece == null) return;
-
-        TetrisPiece testPiece = new TetrisPiece(currentPiece.shape, currentPiece.color);
-        testPiece.x = currentPiece.x + direction;
-        testPiece.y = currentPiece.y;
-
-        if (!checkCollision(testPiece)) {
-            currentPiece.x += direction;
-        }
-        updateGhostPiece();
+    // Cada tamaño de tablero tiene su propio récord; el normal conserva la clave de siempre
+    private String highScoreKey() {
+        if (columns == BOARD_COLUMNS && rows == BOARD_ROWS) return "highScore";
+        return "highScore." + columns + "x" + rows;
     }
 
-    private TetrisPiece generateRandomPiece() {
-        int shapeIndex = MathUtils.random(0, SHAPES.length - 1);
-        return new TetrisPiece(SHAPES[shapeIndex], PIECE_COLORS[shapeIndex]);
-    }
+    // Repeticiones
 
-    public void spawnNewPiece() {
-        if (nextPiece == null) {
-            // Si es la primera vez, inicializa ambas
-            nextPiece = generateRandomPiece();
+    private void finishPlayback() {
+        if (!player.matchesRecording()) {
+            Gdx.app.error("Replay", "La repetición no coincide con la partida grabada (puntos "
+                + engine.getScore() + ", esperados " + playback.getFinalScore() + ")");
         }
-
-        currentPiece = nextPiece;
-        nextPiece = generateRandomPiece();
-        updateGhostPiece();
+        game.showMenu();
     }
 
-    private boolean checkCollision(TetrisPiece piece) {
-        for (int row = 0; row < piece.shape.length; row++) {
-            for (int col = 0; col < piece.shape[row].length; col++) {
-                if (piece.shape[row][col] != 0) {  // Cambiado a != 0 para mayor flexibilidad
-                    int boardX = piece.x + col;
-                    int boardY = piece.y + row;
-
-                    // Verificar límites del tablero
-                    if (boardX < 0 || boardX >= BOARD_COLUMNS || boardY < 0) {
-                        return true;
-                    }
-
-                    // Verificar colisión con piezas ya colocadas
-                    if (boardY < BOARD_ROWS && board[boardY][boardX] != 0) {
-                        return true;
-                    }
-                }
-            }
+    /** Velocidad de la repetición en ticks por tick de reloj (1 = tiempo real). */
+    public void setPlaybackSpeed(int ticksPerTick) {
+        if (ticksPerTick < 1) {
+            throw new IllegalArgumentException("Playback speed must be at least 1: " + ticksPerTick);
         }
-        return false;
-    }
-
-    private void movePieceDown() {
-        if (currentPiece == null) return;
-
-        // Crear copia para prueba
-        TetrisPiece testPiece = new TetrisPiece(
-            Arrays.copyOf(currentPiece.shape, currentPiece.shape.length),
-            currentPiece.color
-        );
-        testPiece.x = currentPiece.x;
-        testPiece.y = currentPiece.y - 1;
-
-        if (!checkCollision(testPiece)) {
-            currentPiece.y--;
-        } else {
-            // Solo colocar la pieza si al menos parte de ella está dentro del tablero
-            boolean shouldPlace = false;
-            for (int row = 0; row < currentPiece.shape.length; row++) {
-                for (int col = 0; col < currentPiece.shape[row].length; col++) {
-                    if (currentPiece.shape[row][col] != 0 &&
-                        (currentPiece.y + row) >= 0) {
-                        shouldPlace = true;
-                        break;
-                    }
-                }
-                if (shouldPlace) break;
-            }
-
-            if (shouldPlace) {
-                placePiece();
-                deactivateFastDrop();
-            }
-            spawnNewPiece();
-
-            // Game over si la nueva pieza colisiona inmediatamente
-            if (checkCollision(currentPiece)) {
-                if (score > highScore) {
-                    highScore = score;
-                    prefs.putInteger("highScore", highScore);
-                    prefs.flush();
-                }
-                Gdx.app.log("Game", "Game Over!");
-                game.setScreen(new MainMenuScreen(game));
+        playbackSpeed = ticksPerTick;
+    }
+
+    public static void saveReplay(Replay replay, FileHandle file) {
+        OutputStream out = file.write(false, 4096);
+        try {
+            replay.write(out);
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "No se pudo guardar " + file.path(), e);
+        } finally {
+            try {
+                out.close();
+            } catch (IOException ignored) {
             }
         }
     }
 
-    private void placePiece() {
-        int colorIndex = Arrays.asList(PIECE_COLORS).indexOf(currentPiece.color) + 1; // +1 aquí
-
-        for (int row = 0; row < currentPiece.shape.length; row++) {
-            for (int col = 0; col < currentPiece.shape[row].length; col++) {
-                if (currentPiece.shape[row][col] != 0) {
-                    int boardX = currentPiece.x + col;
-                    int boardY = currentPiece.y + row;
-
-                    if (boardY >= 0 && boardY < BOARD_ROWS && boardX >= 0 && boardX < BOARD_COLUMNS) {
-                        board[boardY][boardX] = colorIndex; // Ya no necesitas +1 aquí
-                    }
-                }
+    public static Replay loadReplay(FileHandle file) {
+        InputStream in = file.read(4096);
+        try {
+            return Replay.read(in);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading replay " + file.path(), e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
             }
         }
-        placeSound.play(0.5f);
-        checkCompleteLines();
-//        debugBoard();
     }
 
-    private void checkCompleteLines() {
-        int linesCleared = 0;
+    // Menu de pausa
 
-        for (int row = 0; row < BOARD_ROWS; row++) {
-            boolean lineComplete = true;
-            for (int col = 0; col < BOARD_COLUMNS; col++) {
-                if (board[row][col] == 0) {
-                    lineComplete = false;
-                    break;
-                }
-            }
+    private void drawPauseMenu() {
+        drawPausedFrame();
 
-            if (lineComplete) {
-                for (int r = row; r < BOARD_ROWS - 1; r++) {
-                    System.arraycopy(board[r + 1], 0, board[r], 0, BOARD_COLUMNS);
-                }
-                Arrays.fill(board[BOARD_ROWS - 1], 0);
-                row--;
-                linesCleared++;
-            }
+        // Dibuja el menú de pausa
+        pauseStage.act(Gdx.graphics.getDeltaTime());
+        pauseStage.draw();
+        profiler.addRenderCalls(batch.renderCalls);
+    }
+
+    // Juego, HUD y velo oscuro: se dibujan en el FrameBuffer al pausar y luego solo se copian
+    private void drawPausedFrame() {
+        int width = Gdx.graphics.getBackBufferWidth();
+        int height = Gdx.graphics.getBackBufferHeight();
+        if (pausedFrame == null || pausedFrame.getWidth() != width || pausedFrame.getHeight() != height) {
+            if (pausedFrame != null) pausedFrame.dispose();
+            pausedFrame = game.resources.newFrameBuffer(Pixmap.Format.RGB888, width, height);
+            pausedRegion = new TextureRegion(pausedFrame.getColorBufferTexture());
+            pausedRegion.flip(false, true); // El FrameBuffer guarda la imagen invertida en Y
+            pausedFrameValid = false;
         }
 
-        // 🎯 Aumentar puntuación
-        if (linesCleared > 0) {
-            clearLineSound.play(0.8f);
-            switch (linesCleared) {
-                case 1: score += 100; break;
-                case 2: score += 300; break;
-                case 3: score += 500; break;
-                case 4: score += 800; break; // Tetris
-                default: score += linesCleared * 200;
-            }
+        if (!pausedFrameValid) {
+            // La capa del tablero se actualiza antes para no anidar FrameBuffers
+            if (boardLayer != null) boardLayer.update(batch, view.getBoard(), atlas);
+            pausedFrame.begin();
+            viewport.apply();
+            draw();
+            stage.draw();
+            batch.begin();
+            batch.setColor(0, 0, 0, 0.7f);
+            batch.draw(atlas.white, 0, 0, VIRTUAL_WIDTH, VIRTUAL_HEIGHT);
+            batch.setColor(Color.WHITE);
+            batch.end();
+            pausedFrame.end();
+            pausedFrameValid = true;
         }
-    }
-
-    // Menu de pausa
 
-    private void drawPauseMenu() {
-        // Dibuja overlay oscuro
+        Gdx.gl.glViewport(0, 0, width, height);
+        screenProjection.setToOrtho2D(0, 0, width, height);
+        batch.setProjectionMatrix(screenProjection);
         batch.begin();
-        batch.setColor(1, 1, 1, 1);
-        batch.draw(pauseOverlay, 0, 0, VIRTUAL_WIDTH, VIRTUAL_HEIGHT);
+        batch.draw(pausedRegion, 0, 0, width, height);
         batch.end();
-
-        // Dibuja el menú de pausa
-        pauseStage.act(Gdx.graphics.getDeltaTime());
-        pauseStage.draw();
+        profiler.addRenderCalls(batch.renderCalls);
+        viewport.apply();
     }
 
     private Skin createBasicSkin() {
         Skin skin = new Skin();
 
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(Color.WHITE);
-        pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
+        skin.add("white", atlas.white, TextureRegion.class);
 
-        BitmapFont font = new BitmapFont();
+        BitmapFont font = atlas.newFont();
         skin.add("default-font", font);
 
         TextButton.TextButtonStyle buttonStyle = new TextButton.TextButtonStyle();
@@ -645,7 +667,7 @@ public class GameScreen implements Screen {
         menuBtn.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new MainMenuScreen(game));
+                game.showMenu();
             }
         });
         table.add(menuBtn).width(200).height(60);
@@ -655,104 +677,271 @@ public class GameScreen implements Screen {
 
     private void togglePause() {
         isPaused = !isPaused;
+        pausedFrameValid = false;
+        if (simulation != null) simulation.setPaused(isPaused);
+        playerInput.clear(); // Lo que estuviera pulsado al pausar no sigue moviendo al volver
         if (isPaused) {
             Gdx.input.setInputProcessor(pauseStage);
         } else {
-            Gdx.input.setInputProcessor(stage); // O tu input processor principal
+            Gdx.input.setInputProcessor(inputProcessor());
         }
     }
 
     private void resumeGame() {
         isPaused = false;
-        Gdx.input.setInputProcessor(stage); // O tu input processor principal
+        if (simulation != null) simulation.setPaused(false);
+        playerInput.clear();
+        Gdx.input.setInputProcessor(inputProcessor());
+    }
+
+    // En la demo y en la repetición no juega nadie: solo el botón de pausa
+    private InputProcessor inputProcessor() {
+        return playback == null && autopilot == null ? gameInput : stage;
+    }
+
+    private void stopSimulation() {
+        if (simulation == null) return;
+        simulation.stop();
+        simulation = null;
     }
 
     // Debugs
     private void debugBoard() {
-        StringBuilder sb = new StringBuilder("\nBoard State:\n");
-        for (int y = BOARD_ROWS-1; y >= 0; y--) {
-            sb.append("|");
-            for (int x = 0; x < BOARD_COLUMNS; x++) {
-                sb.append(board[y][x] == 0 ? " " : "X");
-            }
-            sb.append("|\n");
-        }
-        Gdx.app.log("DEBUG", sb.toString());
+        Gdx.app.log("DEBUG", engine.debugBoard());
     }
 
     // Constructor y metodos de SCREEN
 
     public GameScreen(TetrisGame game) {
         this.game = game;
-        batch = new SpriteBatch();
+        this.batch = game.batch;
     }
 
-    @Override
-    public void show() {
-        // Configuración cuando se muestra la pantalla
+    // Modo de la próxima vez que se muestre la pantalla
 
-        // Borrar maxima puntuación
-//        prefs.remove("highScore");
-//        prefs.flush();
+    /** Partida normal en el tablero por defecto, que se graba. */
+    public void playGame() {
+        playGame(BOARD_COLUMNS, BOARD_ROWS);
+    }
 
-        prefs = Gdx.app.getPreferences("tetris_prefs");
-        highScore = prefs.getInteger("highScore", 0); // valor por defecto 0
+    /** Partida normal en un tablero de otras dimensiones (hasta {@link Board#MAX_COLUMNS} x {@link Board#MAX_ROWS}). */
+    public void playGame(int columns, int rows) {
+        if (columns < 1 || columns > Board.MAX_COLUMNS || rows < 1 || rows > Board.MAX_ROWS) {
+            throw new IllegalArgumentException("Unsupported board size: " + columns + "x" + rows);
+        }
+        playback = null;
+        autopilot = null;
+        nextColumns = columns;
+        nextRows = rows;
+    }
+
+    /** Reproduce una partida grabada en vez de jugarla. */
+    public void playReplay(Replay replay) {
+        playback = replay;
+        autopilot = null;
+        nextColumns = replay.getColumns();
+        nextRows = replay.getRows();
+    }
+
+    /** Modo demo para la pantalla de inicio: juega el bot, buscando en los hilos del pool común. */
+    public void playDemo() {
+        if (demoPolicy == null) {
+            Bot bot = new Bot(BOARD_COLUMNS, BOARD_ROWS, ForkJoinPool.commonPool());
+            demoPolicy = new BotPolicy(bot, DEMO_TICKS_PER_INPUT);
+        }
+        playback = null;
+        autopilot = demoPolicy;
+        nextColumns = BOARD_COLUMNS;
+        nextRows = BOARD_ROWS;
+    }
+
+    /**
+     * Crea los recursos de GPU de la pantalla (capa del tablero, stages, skin, fuentes y HUD).
+     * El menú la llama de antemano para que al pulsar "Nueva Partida" no haya que crear nada;
+     * si no, se llama desde show().
+     */
+    public void prepare() {
+        if (prepared) return;
+        prepared = true;
 
         camera = new OrthographicCamera();
         viewport = new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT, camera);
-        viewport.apply();
+        // Sin viewport.apply(): puede llamarse mientras dibuja el menú; resize() lo aplica al mostrarse
         camera.position.set(VIRTUAL_WIDTH / 2, VIRTUAL_HEIGHT / 2, 0);
         camera.update();
+        worldCamera = new OrthographicCamera(VIRTUAL_WIDTH, VIRTUAL_HEIGHT);
 
-        board = new int[BOARD_ROWS][BOARD_COLUMNS]; // Inicializar tablero
+        engine = new TetrisEngine(columns, rows, System.nanoTime());
+        engine.setTelemetry(game.telemetry);
+        snapshot = new GameSnapshot(columns, rows);
+        view = snapshot;
+        view.copyFrom(engine);
         initTextures();
+        layoutBoard();
         initSounds();
 
-        // Genera la primera pieza y el bucle que va generando las piezas.
-        spawnNewPiece();
+        // Skin y fuente del HUD vienen del registro compartido; se liberan en dispose()
+        skin = game.resources.acquire(Resources.GAME_SKIN, new Resources.Factory<Skin>() {
+            @Override
+            public Skin create() {
+                return createBasicSkin();
+            }
+        });
+        skinFont = skin.getFont("default-font");
 
         // Cosas del menu de pausa
-        pauseStage = new Stage(new FitViewport(TetrisGame.VIRTUAL_WIDTH, TetrisGame.VIRTUAL_HEIGHT));
+        pauseStage = game.resources.newStage(new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT), batch);
+        createPauseMenu();
 
-        // Crea la skin (reutiliza la que ya tienes o crea una nueva)
-        skin = createBasicSkin();
+        stage = game.resources.newStage(new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT), batch);
+        createPauseButton();
+        playerInput = new InputPipeline(viewport);
+        gameInput = new InputMultiplexer(stage, playerInput);
 
-        // Crea textura para el overlay de pausa
-        Pixmap overlayPixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        overlayPixmap.setColor(0, 0, 0, 0.7f);
-        overlayPixmap.fill();
-        pauseOverlay = new Texture(overlayPixmap);
-        overlayPixmap.dispose();
+        font = game.resources.acquire(Resources.HUD_FONT, new Resources.Factory<BitmapFont>() {
+            @Override
+            public BitmapFont create() {
+                BitmapFont hudFont = atlas.newFont(); // Fuente por defecto, con los glifos en el atlas
+                hudFont.getData().setScale(1.5f);
+                return hudFont;
+            }
+        });
 
-        pauseStage = new Stage(new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT));
-        createPauseMenu();
+        // La etiqueta de la pieza siguiente va encima de la vista previa (ver drawNextPiece)
+        hud = new Hud(font, skinFont);
+        hud.layout(20, VIRTUAL_HEIGHT, 20, VIRTUAL_HEIGHT - 25, 20, VIRTUAL_HEIGHT - 60,
+            camera.position.x + viewport.getWorldWidth() / 2f - 100,
+            camera.position.y + viewport.getWorldHeight() / 2f - 150 + 65,
+            20, 30);
 
-        stage = new Stage(new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT));
-        createPauseButton();
-        Gdx.input.setInputProcessor(stage);
+        profiler = new FrameProfiler(skinFont, game.gcStats);
+        profiler.setTelemetry(game.telemetry);
+    }
 
-        font = new BitmapFont(); // Fuente por defecto
-        font.getData().setScale(1.5f);
+    public boolean isPrepared() {
+        return prepared;
+    }
 
-        createPauseMenu();
+    /** Momento (System.nanoTime) del clic que lleva a esta pantalla, para medir cuánto tarda el primer frame. */
+    public void setTransitionStart(long nanos) {
+        transitionStart = nanos;
+    }
+
+    @Override
+    public void show() {
+        // Configuración cuando se muestra la pantalla
+
+        // Borrar maxima puntuación
+//        prefs.remove("highScore");
+//        prefs.flush();
+
+        prefs = Gdx.app.getPreferences("tetris_prefs");
+        game.renderScheduler.setOnDemand(game.lowPower);
+        timestep.setMaxFrameSeconds(game.lowPower ? LOW_POWER_MAX_FRAME_TIME : MAX_FRAME_TIME);
+        prewarmed = prepared;
+        stopSimulation();
+        prepare();
+        setupBoard(nextColumns, nextRows);
+        highScore = prefs.getInteger(highScoreKey(), 0); // valor por defecto 0
+
+        // Estado de la partida anterior fuera
+        isPaused = false;
+        pausedFrameValid = false;
+        timestep.reset();
+        playerInput.reset(columns);
+        playerInput.setAutoShift(prefs.getInteger(DAS_KEY, InputPipeline.DEFAULT_DAS_MILLIS),
+            prefs.getInteger(ARR_KEY, InputPipeline.DEFAULT_ARR_MILLIS));
+        playbackSpeed = 1;
+        botReportTime = 0;
+        player = null;
+        recording = null;
+        engine.setRecorder(null);
+        markBoardDirty();
+
+        // El motor reinicia el tablero y genera la primera pieza.
+        if (playback != null) {
+            player = new ReplayPlayer(playback, engine);
+        } else {
+            // Una repetición antigua puede haber dejado las reglas clásicas. La demo juega con las
+            // clásicas: el bot no aguanta los 20G de los niveles altos y la demo debe durar
+            if (autopilot != null) {
+                engine.setRules(TetrisEngine.RULES_CLASSIC, 1);
+            } else {
+                engine.setRules(TetrisEngine.RULES_LEVELS, MathUtils.clamp(
+                    prefs.getInteger(START_LEVEL_KEY, 1), 1, TetrisEngine.MAX_LEVEL));
+            }
+            engine.reset();
+            if (autopilot != null) {
+                autopilot.reset(engine);
+                botReportPlacements = demoPolicy.getBot().getEvaluatedPlacements();
+            } else {
+                recording = new Replay(engine);
+                engine.setRecorder(recording);
+                if (game.simulationThread) {
+                    simulation = new SimulationThread(engine);
+                }
+            }
+        }
+        if (simulation != null) {
+            view = simulation.latest();
+            simulation.start();
+        } else {
+            view = snapshot;
+            view.copyFrom(engine);
+        }
+        resetShownEvents();
+        layoutBoard(); // La cámara empieza ya sobre la primera pieza
+
+        Gdx.input.setInputProcessor(inputProcessor());
     }
 
     @Override
     public void render(float delta) {
+        updateProfilerToggle();
+        profiler.beginFrame();
         if (!isPaused) {
+            profiler.phase(FrameProfiler.INPUT);
             handleInput();
+            profiler.phase(FrameProfiler.UPDATE);
             updateGame();
         }
-        draw();
-        stage.act(delta);
-        stage.draw();
         if (isPaused) {
+            profiler.phase(FrameProfiler.PAUSE);
             drawPauseMenu();
+        } else {
+            draw();
+            profiler.phase(FrameProfiler.STAGE);
+            stage.act(delta);
+            stage.draw();
+            profiler.addRenderCalls(batch.renderCalls);
+        }
+        profiler.endFrame();
+        drawProfiler();
+        scheduleNextFrame();
+
+        if (transitionStart != 0) {
+            Gdx.app.log("Timing", String.format("Primer frame de juego a %.1f ms del clic (%s)",
+                (System.nanoTime() - transitionStart) / 1e6, prewarmed ? "precargada" : "sin precargar"));
+            transitionStart = 0;
         }
     }
 
+    // Bajo demanda: el siguiente frame cuando vaya a cambiar algo. En pausa basta con la entrada
+    private void scheduleNextFrame() {
+        RenderScheduler scheduler = game.renderScheduler;
+        if (!scheduler.isOnDemand() || isPaused || game.getScreen() != this) return;
+        if (player != null || profiler.isEnabled() || !playerInput.isIdle() || isCameraMoving()) {
+            scheduler.requestNow();
+            return;
+        }
+        int ticks = view.getTicksUntilDrop();
+        if (autopilot != null) ticks = Math.min(ticks, DEMO_TICKS_PER_INPUT);
+        scheduler.requestIn((ticks - timestep.getAlpha()) / TICKS_PER_SECOND);
+    }
+
     @Override
     public void resize(int width, int height) {
+        pausedFrameValid = false;
         viewport.update(width, height);
         stage.getViewport().update(width, height, true);
         pauseStage.getViewport().update(width, height, true);
@@ -760,27 +949,51 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose () {
-        batch.dispose();
-        placeSound.dispose();
-        clearLineSound.dispose();
-        if (stage != null) stage.dispose();
-        if (pauseStage != null) pauseStage.dispose();
-        if (pauseOverlay != null) pauseOverlay.dispose();
-        if (skin != null) skin.dispose();
+        // Sonidos y atlas son del AssetManager, y el batch del juego
+        stopSimulation();
+        if (!prepared) return;
+        prepared = false;
+        profiler.disable();
+        stage.dispose();
+        pauseStage.dispose();
+        game.resources.release(Resources.GAME_SKIN);
+        game.resources.release(Resources.HUD_FONT);
+        if (boardLayer != null) boardLayer.dispose();
+        if (pausedFrame != null) {
+            pausedFrame.dispose();
+            pausedFrame = null;
+        }
+    }
+
+    /** Llamadas de dibujo del SpriteBatch en el último frame (tablero, piezas y HUD). */
+    public int getRenderCalls() {
+        return lastRenderCalls;
+    }
+
+    public int getMaxSpritesInBatch() {
+        return maxSpritesInBatch;
     }
 
     @Override
     public void pause() {
-
+        // La aplicación pasa a segundo plano: la partida queda en el menú de pausa (y su hilo parado)
+        if (playback == null && autopilot == null && !isPaused) togglePause();
     }
 
     @Override
     public void resume() {
-
+        pausedFrameValid = false;
+        // Tras perder el contexto GL el FrameBuffer se recrea vacío
+        if (boardLayer != null) boardLayer.markDirty();
     }
 
     @Override
     public void hide() {
-
+        stopSimulation();
+        game.renderScheduler.cancel();
+        // Al salir de la partida se guarda lo medido, como al ocultar el panel
+        if (profiler != null && profiler.isEnabled()) {
+            profiler.toggle();
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.alex.tetris;
+
+/**
+ * Copia de lo que necesita la capa visual de un TetrisEngine en un instante: tablero, piezas,
+ * puntuación y contadores. El renderizado solo lee instantáneas, así que da igual si el motor
+ * avanza en el mismo hilo o en un {@link SimulationThread}. Los contadores (piezas, líneas)
+ * sirven para disparar sonidos y redibujar el tablero al ver que cambian.
+ */
+public class GameSnapshot {
+    private final Board board;
+    private final TetrisPiece currentPiece = new TetrisPiece(0);
+    private final TetrisPiece nextPiece = new TetrisPiece(0);
+    private final TetrisPiece ghostPiece = new TetrisPiece(0);
+    private int score;
+    private int linesCleared;
+    private int piecesPlaced;
+    private int level;
+    private long tickCount;
+    private int ticksUntilDrop;
+    private boolean gameOver;
+    private boolean fastDropActive;
+
+    public GameSnapshot(int columns, int rows) {
+        board = new Board(columns, rows);
+    }
+
+    /** Copia el estado del motor sin reservar memoria; el tablero debe tener las mismas dimensiones. */
+    public void copyFrom(TetrisEngine engine) {
+        board.copyFrom(engine.getBoard());
+        currentPiece.set(engine.getCurrentPiece());
+        nextPiece.set(engine.getNextPiece());
+        ghostPiece.set(engine.getGhostPiece());
+        score = engine.getScore();
+        linesCleared = engine.getLinesCleared();
+        piecesPlaced = engine.getPiecesPlaced();
+        level = engine.getLevel();
+        tickCount = engine.getTickCount();
+        ticksUntilDrop = engine.getTicksUntilDrop();
+        gameOver = engine.isGameOver();
+        fastDropActive = engine.isFastDropActive();
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public TetrisPiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    public TetrisPiece getNextPiece() {
+        return nextPiece;
+    }
+
+    public TetrisPiece getGhostPiece() {
+        return ghostPiece;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    public int getPiecesPlaced() {
+        return piecesPlaced;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public int getTicksUntilDrop() {
+        return ticksUntilDrop;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isFastDropActive() {
+        return fastDropActive;
+    }
+}
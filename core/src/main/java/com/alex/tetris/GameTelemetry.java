@@ -0,0 +1,29 @@
+package com.alex.tetris;
+
+/**
+ * Receptor de sucesos de la partida y de los frames para herramientas externas (en escritorio,
+ * eventos de Java Flight Recorder). Por defecto no hay ninguno: el motor y el perfilador solo
+ * comprueban que la referencia sea null, así que desactivado no cuesta nada.
+ */
+public interface GameTelemetry {
+    /** Empieza un frame. */
+    void frameBegin();
+
+    /**
+     * Termina el frame empezado con {@link #frameBegin()}.
+     *
+     * @param phaseNanos nanosegundos de cada fase, indexados con las constantes de {@link FrameProfiler}
+     */
+    void frameEnd(long[] phaseNanos, int renderCalls);
+
+    void pieceSpawned(int type);
+
+    void piecePlaced(int type, int rotation, int x, int y);
+
+    void linesCleared(int lines);
+
+    /** Intento de giro; {@code rotated} es false si ningún desplazamiento de la tabla de kicks cabía. */
+    void rotation(int type, int fromRotation, boolean rotated);
+
+    void gameOver(int score, int linesCleared, long ticks);
+}
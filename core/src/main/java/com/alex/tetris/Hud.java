@@ -0,0 +1,112 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Textos del HUD con la maquetación de glifos guardada en un BitmapFontCache por línea. Una línea
+ * solo se vuelve a maquetar cuando cambia su valor, y los números se escriben en un StringBuilder
+ * reutilizado, así que un frame normal solo copia vértices ya calculados.
+ */
+public class Hud {
+    private final BitmapFontCache score;
+    private final BitmapFontCache highScore;
+    private final BitmapFontCache level;
+    private final BitmapFontCache nextLabel;
+    private final BitmapFontCache status;
+    private final StringBuilder text = new StringBuilder(32);
+
+    private float scoreX, scoreY;
+    private float highScoreX, highScoreY;
+    private float levelX, levelY;
+    private float statusX, statusY;
+    private int shownScore = -1;
+    private int shownHighScore = -1;
+    private int shownLevel = -1;
+    private long shownStatus = -1;
+    private boolean statusVisible = false;
+
+    /**
+     * @param valueFont fuente de la puntuación y el récord
+     * @param labelFont fuente de las etiquetas pequeñas
+     */
+    public Hud(BitmapFont valueFont, BitmapFont labelFont) {
+        score = valueFont.newFontCache();
+        highScore = valueFont.newFontCache();
+        level = labelFont.newFontCache();
+        nextLabel = labelFont.newFontCache();
+        status = labelFont.newFontCache();
+    }
+
+    /** Coloca las líneas; la etiqueta "Siguiente:" no cambia nunca y se maqueta aquí una vez. */
+    public void layout(float scoreX, float scoreY, float highScoreX, float highScoreY, float levelX, float levelY,
+                       float nextX, float nextY, float statusX, float statusY) {
+        this.scoreX = scoreX;
+        this.scoreY = scoreY;
+        this.highScoreX = highScoreX;
+        this.highScoreY = highScoreY;
+        this.levelX = levelX;
+        this.levelY = levelY;
+        this.statusX = statusX;
+        this.statusY = statusY;
+        nextLabel.setText("Siguiente:", nextX, nextY);
+        // Obliga a maquetar de nuevo los valores en las posiciones nuevas
+        shownScore = -1;
+        shownHighScore = -1;
+        shownLevel = -1;
+        shownStatus = -1;
+    }
+
+    public void setScore(int value) {
+        if (value == shownScore) return;
+        shownScore = value;
+        text.setLength(0);
+        text.append("Puntos: ").append(value);
+        score.setText(text, scoreX, scoreY);
+    }
+
+    public void setHighScore(int value) {
+        if (value == shownHighScore) return;
+        shownHighScore = value;
+        text.setLength(0);
+        text.append("Récord: ").append(value);
+        highScore.setText(text, highScoreX, highScoreY);
+    }
+
+    public void setLevel(int value) {
+        if (value == shownLevel) return;
+        shownLevel = value;
+        text.setLength(0);
+        text.append("Nivel: ").append(value);
+        level.setText(text, levelX, levelY);
+    }
+
+    /** Puntos y nivel de lo que se dibuja, y el récord; lo que no ha cambiado no se toca. */
+    public void update(GameSnapshot view, int highScoreValue) {
+        setScore(view.getScore());
+        setHighScore(highScoreValue);
+        setLevel(view.getLevel());
+    }
+
+    /** Línea de estado del modo demo: colocaciones evaluadas por segundo por el bot. */
+    public void setBotPlacementsPerSecond(long value) {
+        statusVisible = true;
+        if (value == shownStatus) return;
+        shownStatus = value;
+        text.setLength(0);
+        text.append("Bot: ").append(value).append(" colocaciones/s");
+        status.setText(text, statusX, statusY);
+    }
+
+    public void draw(Batch batch) {
+        score.draw(batch);
+        highScore.draw(batch);
+        level.draw(batch);
+        nextLabel.draw(batch);
+        if (statusVisible) {
+            status.draw(batch);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Entrada del jugador por sucesos en vez de consultar el estado una vez por frame. Cada toque o
+ * tecla se guarda al llegar con su marca de tiempo (la del sistema, no la del frame) en una cola,
+ * y quien hace avanzar el motor pide con {@link #poll(long)} las entradas anteriores a cada tick,
+ * así que se aplican en el tick que les toca aunque lleguen varias en un mismo frame.
+ *
+ * <p>Las flechas mantenidas repiten con DAS/ARR: la primera pulsación mueve una columna, tras
+ * {@code das} ms empieza la repetición automática y sigue una columna cada {@code arr} ms
+ * (con 0 la pieza va directamente a la pared). Si el ARR es menor que un tick, salen varios
+ * movimientos por tick.
+ *
+ * <p>Teclado: flechas o A/D para mover, arriba/W/X para girar, abajo/S para caída rápida y espacio
+ * para soltar la pieza. El motor quita la caída rápida al fijar cada pieza; mientras abajo siga
+ * pulsado, quien avanza el motor avisa con {@link #pieceSpawned()} y se vuelve a activar.
+ *
+ * <p>Táctil: deslizar en horizontal mueve una columna cada {@link #SWIPE_DISTANCE}, deslizar hacia
+ * abajo activa la caída rápida (o suelta la pieza si es un golpe rápido) y un toque corto (menos
+ * de 300 ms y sin apenas moverse) gira.
+ */
+public class InputPipeline extends InputAdapter {
+    public static final int DEFAULT_DAS_MILLIS = 133; // 8 frames a 60 Hz
+    public static final int DEFAULT_ARR_MILLIS = 33;  // 2 frames a 60 Hz
+    private static final long TICK_NANOS = 1_000_000_000L / TetrisGame.TICKS_PER_SECOND;
+
+    // Táctil, en unidades del mundo virtual
+    public static final float SWIPE_DISTANCE = 40f;
+    private static final float SOFT_DROP_SWIPE_DISTANCE = 60f;
+    private static final float MAX_TAP_DISTANCE = 15f;
+    private static final long TAP_MAX_NANOS = 300_000_000L; // Una pulsación más larga no gira (los 0,3 s de siempre)
+    private static final long FLICK_MAX_NANOS = 150_000_000L; // Bajar tan deprisa es caída instantánea
+
+    // Sucesos de la cola: 0..5 son entradas del motor; los siguientes, flechas que se mantienen
+    private static final int HOLD_LEFT = 16;
+    private static final int RELEASE_LEFT = 17;
+    private static final int HOLD_RIGHT = 18;
+    private static final int RELEASE_RIGHT = 19;
+    private static final int HOLD_DOWN = 20;
+    private static final int RELEASE_DOWN = 21;
+
+    private static final int CAPACITY = 128; // Potencia de dos
+
+    private final Viewport viewport;
+    private final int[] events = new int[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    private int head;
+    private int size;
+
+    private long dasNanos = DEFAULT_DAS_MILLIS * 1_000_000L;
+    private long arrNanos = DEFAULT_ARR_MILLIS * 1_000_000L;
+    private int columns = TetrisGame.BOARD_COLUMNS;
+
+    // Repetición automática; la dirección es la última flecha pulsada que sigue mantenida
+    private boolean leftHeld;
+    private boolean rightHeld;
+    private int shiftInput = InputPolicy.NONE;
+    private long nextShift;
+    private int instantShifts; // Con ARR 0, movimientos que quedan hasta la pared
+
+    private boolean downHeld;
+    private boolean softDropPending; // Pieza nueva con abajo mantenido: falta volver a activar la caída
+
+    // Gesto táctil en curso (solo el primer dedo)
+    private final Vector3 touchStart = new Vector3();
+    private final Vector3 touchPos = new Vector3();
+    private long touchDownTime;
+    private boolean touching;
+    private boolean gestureUsed; // Ya ha movido o activado la caída: al soltar no gira
+    private boolean softDropSent;
+
+    /** @param viewport para pasar los toques a unidades del mundo virtual */
+    public InputPipeline(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    /** Retardo antes de la repetición automática y tiempo entre repeticiones, en milisegundos. */
+    public void setAutoShift(int dasMillis, int arrMillis) {
+        if (dasMillis < 0 || arrMillis < 0) {
+            throw new IllegalArgumentException("DAS and ARR must not be negative: " + dasMillis + ", " + arrMillis);
+        }
+        dasNanos = dasMillis * 1_000_000L;
+        arrNanos = arrMillis * 1_000_000L;
+    }
+
+    /** Descarta sucesos pendientes y teclas mantenidas (partida nueva, pausa). */
+    public void reset(int columns) {
+        this.columns = columns;
+        clear();
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        leftHeld = false;
+        rightHeld = false;
+        downHeld = false;
+        softDropPending = false;
+        shiftInput = InputPolicy.NONE;
+        touching = false;
+    }
+
+    /** Sin sucesos pendientes, dirección mantenida ni gesto en curso: no hace falta dibujar por la entrada. */
+    public boolean isIdle() {
+        return size == 0 && shiftInput == InputPolicy.NONE && !touching;
+    }
+
+    /** Ha aparecido una pieza; si abajo sigue mantenido, el siguiente {@link #poll} reactiva la caída rápida. */
+    public void pieceSpawned() {
+        if (downHeld) softDropPending = true;
+    }
+
+    /**
+     * Siguiente entrada del motor ({@code TetrisEngine.INPUT_*}) ocurrida hasta {@code until}
+     * (System.nanoTime), o {@link InputPolicy#NONE} si no queda ninguna. Se llama en bucle antes de
+     * cada tick con el instante que ese tick representa.
+     */
+    public int poll(long until) {
+        if (softDropPending) {
+            softDropPending = false;
+            return TetrisEngine.INPUT_SOFT_DROP_ON;
+        }
+        while (true) {
+            long eventTime = size > 0 ? times[head] : Long.MAX_VALUE;
+            // Una repetición que vence antes que el siguiente suceso va primero
+            if (shiftInput != InputPolicy.NONE && nextShift <= until && nextShift <= eventTime) {
+                if (arrNanos > 0) {
+                    nextShift += arrNanos;
+                } else if (--instantShifts == 0) {
+                    nextShift = Long.MAX_VALUE; // Ya en la pared hasta que se suelte
+                }
+                return shiftInput;
+            }
+            if (eventTime > until) return InputPolicy.NONE;
+
+            int event = events[head];
+            head = (head + 1) & (CAPACITY - 1);
+            size--;
+            int input = apply(event, eventTime);
+            if (input != InputPolicy.NONE) return input;
+        }
+    }
+
+    /**
+     * Avanza el motor {@code steps} ticks fijos aplicando antes de cada uno lo ocurrido hasta el
+     * instante que representa: el último queda {@code alpha} ticks antes de {@code now}
+     * (System.nanoTime), como dice {@link FixedTimestep#getAlpha()}.
+     */
+    public void runTicks(TetrisEngine engine, int steps, float alpha, long now) {
+        long lastTick = now - (long) (alpha * TICK_NANOS);
+        for (int i = 0; i < steps; i++) {
+            long tickTime = lastTick - (steps - 1 - i) * TICK_NANOS;
+            int pieces = engine.getPiecesPlaced();
+            for (int input = poll(tickTime); input != InputPolicy.NONE; input = poll(tickTime)) {
+                engine.applyInput(input);
+            }
+            engine.tick();
+            if (engine.getPiecesPlaced() != pieces) pieceSpawned();
+        }
+    }
+
+    private int apply(int event, long time) {
+        switch (event) {
+            case HOLD_LEFT:
+                leftHeld = true;
+                startShift(TetrisEngine.INPUT_MOVE_LEFT, time);
+                return TetrisEngine.INPUT_MOVE_LEFT;
+            case HOLD_RIGHT:
+                rightHeld = true;
+                startShift(TetrisEngine.INPUT_MOVE_RIGHT, time);
+                return TetrisEngine.INPUT_MOVE_RIGHT;
+            case RELEASE_LEFT:
+                leftHeld = false;
+                releaseShift(TetrisEngine.INPUT_MOVE_LEFT, rightHeld, TetrisEngine.INPUT_MOVE_RIGHT, time);
+                return InputPolicy.NONE;
+            case RELEASE_RIGHT:
+                rightHeld = false;
+                releaseShift(TetrisEngine.INPUT_MOVE_RIGHT, leftHeld, TetrisEngine.INPUT_MOVE_LEFT, time);
+                return InputPolicy.NONE;
+            case HOLD_DOWN:
+                downHeld = true;
+                return TetrisEngine.INPUT_SOFT_DROP_ON;
+            case RELEASE_DOWN:
+                downHeld = false;
+                softDropPending = false;
+                return TetrisEngine.INPUT_SOFT_DROP_OFF;
+            default:
+                return event;
+        }
+    }
+
+    private void startShift(int input, long time) {
+        shiftInput = input;
+        nextShift = time + dasNanos;
+        instantShifts = columns;
+    }
+
+    // Al soltar la dirección activa, si la contraria sigue pulsada vuelve a contar el DAS hacia ella
+    private void releaseShift(int released, boolean otherHeld, int other, long time) {
+        if (shiftInput != released) return;
+        if (otherHeld) {
+            startShift(other, time);
+        } else {
+            shiftInput = InputPolicy.NONE;
+        }
+    }
+
+    private void push(int event) {
+        if (size == CAPACITY) return; // Nadie consume (pausa larga): se descarta
+        int index = (head + size) & (CAPACITY - 1);
+        events[index] = event;
+        times[index] = Gdx.input.getCurrentEventTime();
+        size++;
+    }
+
+    // Teclado
+
+    @Override
+    public boolean keyDown(int keycode) {
+        switch (keycode) {
+            case Input.Keys.LEFT:
+            case Input.Keys.A:
+                push(HOLD_LEFT);
+                return true;
+            case Input.Keys.RIGHT:
+            case Input.Keys.D:
+                push(HOLD_RIGHT);
+                return true;
+            case Input.Keys.UP:
+            case Input.Keys.W:
+            case Input.Keys.X:
+                push(TetrisEngine.INPUT_ROTATE);
+                return true;
+            case Input.Keys.DOWN:
+            case Input.Keys.S:
+                push(HOLD_DOWN);
+                return true;
+            case Input.Keys.SPACE:
+                push(TetrisEngine.INPUT_HARD_DROP);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        switch (keycode) {
+            case Input.Keys.LEFT:
+            case Input.Keys.A:
+                push(RELEASE_LEFT);
+                return true;
+            case Input.Keys.RIGHT:
+            case Input.Keys.D:
+                push(RELEASE_RIGHT);
+                return true;
+            case Input.Keys.DOWN:
+            case Input.Keys.S:
+                push(RELEASE_DOWN);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Táctil
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        if (pointer != 0) return false;
+        viewport.unproject(touchStart.set(screenX, screenY, 0));
+        touchDownTime = Gdx.input.getCurrentEventTime();
+        touching = true;
+        gestureUsed = false;
+        softDropSent = false;
+        return true;
+    }
+
+    @Override
+    public boolean touchDragged(int screenX, int screenY, int pointer) {
+        if (pointer != 0 || !touching) return false;
+        viewport.unproject(touchPos.set(screenX, screenY, 0));
+
+        // Una columna por cada SWIPE_DISTANCE recorrida, aunque lleguen varias en un solo suceso
+        float deltaX = touchPos.x - touchStart.x;
+        while (Math.abs(deltaX) > SWIPE_DISTANCE) {
+            float step = deltaX > 0 ? SWIPE_DISTANCE : -SWIPE_DISTANCE;
+            push(deltaX > 0 ? TetrisEngine.INPUT_MOVE_RIGHT : TetrisEngine.INPUT_MOVE_LEFT);
+            touchStart.x += step;
+            deltaX -= step;
+            gestureUsed = true;
+        }
+        // Deslizar hacia abajo (y negativa en el mundo) activa la caída rápida; un golpe rápido suelta la pieza
+        if (!softDropSent && touchPos.y - touchStart.y < -SOFT_DROP_SWIPE_DISTANCE) {
+            boolean flick = Gdx.input.getCurrentEventTime() - touchDownTime < FLICK_MAX_NANOS;
+            push(flick ? TetrisEngine.INPUT_HARD_DROP : TetrisEngine.INPUT_SOFT_DROP_ON);
+            softDropSent = true;
+            gestureUsed = true;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        if (pointer != 0 || !touching) return false;
+        touching = false;
+        if (gestureUsed || Gdx.input.getCurrentEventTime() - touchDownTime >= TAP_MAX_NANOS) return true;
+
+        viewport.unproject(touchPos.set(screenX, screenY, 0));
+        if (touchStart.dst(touchPos) < MAX_TAP_DISTANCE) {
+            push(TetrisEngine.INPUT_ROTATE);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean touchCancelled(int screenX, int screenY, int pointer, int button) {
+        if (pointer == 0) touching = false;
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.alex.tetris;
+
+/**
+ * Fuente de entradas para partidas sin jugador: simulaciones por lotes, pruebas y modo demo.
+ * Quien conduce la partida pide una entrada antes de cada tick y la aplica al motor.
+ */
+public interface InputPolicy {
+    /** Valor de {@link #nextInput} cuando no hay entrada en este tick. */
+    int NONE = -1;
+
+    /** Se llama al empezar cada partida, después de {@link TetrisEngine#reset}. */
+    void reset(TetrisEngine engine);
+
+    /** Entrada (una de las {@code TetrisEngine.INPUT_*}) para el tick actual, o {@link #NONE}. */
+    int nextInput(TetrisEngine engine);
+}
@@ -0,0 +1,42 @@
+package com.alex.tetris;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola acotada de entradas para exactamente un productor (el hilo de render) y un consumidor (el
+ * hilo de simulación), sin bloqueos: un array circular con un contador de lectura y otro de
+ * escritura, cada uno escrito por un solo hilo.
+ */
+public class InputQueue {
+    private final int[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Siguiente a leer; solo lo avanza el consumidor
+    private final AtomicLong tail = new AtomicLong(); // Siguiente a escribir; solo lo avanza el productor
+
+    /** @param capacity potencia de dos */
+    public InputQueue(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        buffer = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /** Productor: añade una entrada; false si la cola está llena. */
+    public boolean offer(int input) {
+        long t = tail.get();
+        if (t - head.get() == buffer.length) return false;
+        buffer[(int) t & mask] = input;
+        tail.lazySet(t + 1); // Publica la entrada después de escribirla
+        return true;
+    }
+
+    /** Consumidor: saca la entrada más antigua, o {@link InputPolicy#NONE} si no hay ninguna. */
+    public int poll() {
+        long h = head.get();
+        if (h == tail.get()) return InputPolicy.NONE;
+        int input = buffer[(int) h & mask];
+        head.lazySet(h + 1); // Libera el hueco después de leerlo
+        return input;
+    }
+}
@@ -2,21 +2,44 @@ package com.alex.tetris;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
+/**
+ * Menú principal. TetrisGame tiene una sola instancia: el stage y la skin se crean la primera vez que se muestra.
+ * Es estático, así que se dibuja bajo demanda: con cada entrada, a {@link TetrisGame#menuFps} mientras
+ * carga y una vez más cuando toca empezar la demo.
+ */
 public class MainMenuScreen implements Screen {
+    // Sin tocar nada durante este tiempo empieza la demo
+    private static final float IDLE_DEMO_SECONDS = 30f;
+
+    // Tiempo máximo por frame dedicado a cargar recursos, para que el menú siga fluido
+    private static final int LOAD_BUDGET_MILLIS = 8;
+
     private final TetrisGame game;
     private Stage stage;
+    private float idleTime = 0;
+    private boolean firstFrameLogged;
+
+    // Carga en segundo plano: los botones de juego se activan cuando termina
+    private Texture white;
+    private final Array<TextButton> gameButtons = new Array<>();
+    private TextButton replayBtn;
+    private FileHandle replayFile;
 
     public MainMenuScreen(TetrisGame game) {
         this.game = game;
@@ -24,23 +47,60 @@ public class MainMenuScreen implements Screen {
 
     @Override
     public void show() {
-        stage = new Stage(new FitViewport(TetrisGame.VIRTUAL_WIDTH, TetrisGame.VIRTUAL_HEIGHT));
+        if (stage == null) {
+            stage = game.resources.newStage(
+                new FitViewport(TetrisGame.VIRTUAL_WIDTH, TetrisGame.VIRTUAL_HEIGHT), game.batch);
+            createButtons();
+        }
+        // La repetición puede haber aparecido en la última partida
+        replayBtn.setVisible(replayFile.exists());
+        idleTime = 0;
+        game.renderScheduler.setOnDemand(true);
         Gdx.input.setInputProcessor(stage);
-        createButtons();
     }
 
     private void createButtons() {
-        // Crea una skin básica (blanca)
-        Skin skin = createBasicSkin();
+        // Crea una skin básica (blanca), compartida por el registro
+        Skin skin = game.resources.acquire(Resources.MENU_SKIN, new Resources.Factory<Skin>() {
+            @Override
+            public Skin create() {
+                return createBasicSkin();
+            }
+        });
+        white = skin.get("white", Texture.class);
 
         // Botón "Nueva Partida"
-        TextButton newGameBtn = new TextButton("Nueva Partida", skin);
+        final TextButton newGameBtn = new TextButton("Nueva Partida", skin);
         newGameBtn.setPosition(
             TetrisGame.VIRTUAL_WIDTH/2 - 100,
             TetrisGame.VIRTUAL_HEIGHT/2 + 40
         );
         newGameBtn.setSize(200, 60);
 
+        // Botón "Tablero Grande"
+        final TextButton bigBoardBtn = new TextButton("Tablero Grande", skin);
+        bigBoardBtn.setPosition(
+            TetrisGame.VIRTUAL_WIDTH/2 - 100,
+            TetrisGame.VIRTUAL_HEIGHT/2 + 120
+        );
+        bigBoardBtn.setSize(200, 60);
+
+        // Botón "Espectador": cuadrícula de partidas del bot
+        final TextButton spectatorBtn = new TextButton("Espectador", skin);
+        spectatorBtn.setPosition(
+            TetrisGame.VIRTUAL_WIDTH/2 - 100,
+            TetrisGame.VIRTUAL_HEIGHT/2 + 200
+        );
+        spectatorBtn.setSize(200, 60);
+
+        // Botón "Demo"
+        final TextButton demoBtn = new TextButton("Demo", skin);
+        demoBtn.setPosition(
+            TetrisGame.VIRTUAL_WIDTH/2 - 100,
+            TetrisGame.VIRTUAL_HEIGHT/2 - 120
+        );
+        demoBtn.setSize(200, 60);
+
         // Botón "Ajustes"
 //        TextButton settingsBtn = new TextButton("Ajustes", skin);
 //        settingsBtn.setPosition(
@@ -53,9 +113,28 @@ public class MainMenuScreen implements Screen {
         newGameBtn.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new GameScreen(game));
+                if (newGameBtn.isDisabled()) return;
+                game.startGame(System.nanoTime());
             }
         });
+        gameButtons.add(newGameBtn);
+
+        bigBoardBtn.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                if (bigBoardBtn.isDisabled()) return;
+                game.startGame(TetrisGame.BIG_BOARD_COLUMNS, TetrisGame.BIG_BOARD_ROWS, System.nanoTime());
+            }
+        });
+        gameButtons.add(bigBoardBtn);
+
+        spectatorBtn.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                if (!spectatorBtn.isDisabled()) game.startSpectator();
+            }
+        });
+        gameButtons.add(spectatorBtn);
 
 //        settingsBtn.addListener(new ClickListener() {
 //            @Override
@@ -64,7 +143,37 @@ public class MainMenuScreen implements Screen {
 //            }
 //        });
 
+        demoBtn.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                if (!demoBtn.isDisabled()) startDemo();
+            }
+        });
+        gameButtons.add(demoBtn);
+
         stage.addActor(newGameBtn);
+        stage.addActor(bigBoardBtn);
+        stage.addActor(spectatorBtn);
+        stage.addActor(demoBtn);
+
+        // Botón "Ver Repetición" de la última partida; solo visible si la hay
+        replayFile = Gdx.files.local(GameScreen.LAST_REPLAY_PATH);
+        replayBtn = new TextButton("Ver Repetición", skin);
+        replayBtn.setPosition(
+            TetrisGame.VIRTUAL_WIDTH/2 - 100,
+            TetrisGame.VIRTUAL_HEIGHT/2 - 40
+        );
+        replayBtn.setSize(200, 60);
+        replayBtn.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                if (replayBtn.isDisabled()) return;
+                game.startReplay(GameScreen.loadReplay(replayFile));
+            }
+        });
+        gameButtons.add(replayBtn);
+        stage.addActor(replayBtn);
+        setGameButtonsEnabled(game.assets.isFinished());
 //        stage.addActor(settingsBtn);
     }
 
@@ -74,11 +183,12 @@ public class MainMenuScreen implements Screen {
         BitmapFont font = new BitmapFont();
         skin.add("default-font", font);
 
+        // Textura gestionada (se recarga si se pierde el contexto); la skin libera también el Pixmap
         Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
         pixmap.setColor(Color.WHITE);
         pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
+        skin.add("white", new Texture(new PixmapTextureData(pixmap, null, false, false, true)));
+        skin.add("white", pixmap);
 
         TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle();
         textButtonStyle.font = skin.getFont("default-font");
@@ -87,6 +197,8 @@ public class MainMenuScreen implements Screen {
         textButtonStyle.up = skin.newDrawable("white", Color.DARK_GRAY);
         textButtonStyle.down = skin.newDrawable("white", Color.GRAY);
         textButtonStyle.over = skin.newDrawable("white", Color.LIGHT_GRAY);
+        textButtonStyle.disabled = skin.newDrawable("white", new Color(0.15f, 0.15f, 0.15f, 1));
+        textButtonStyle.disabledFontColor = Color.GRAY;
 
         skin.add("default", textButtonStyle);
 
@@ -99,9 +211,77 @@ public class MainMenuScreen implements Screen {
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        updateLoading();
+
         // Dibuja los botones
         stage.act(delta);
         stage.draw();
+        if (!game.assets.isFinished()) {
+            drawProgressBar(game.assets.getProgress());
+        }
+        if (!firstFrameLogged) {
+            Gdx.app.log("Timing", String.format("Primer frame del menú a %.1f ms de create()",
+                (System.nanoTime() - game.createNanos) / 1e6));
+            firstFrameLogged = true;
+        }
+
+        // Modo demo tras un rato sin actividad
+        if (Gdx.input.isTouched()) {
+            idleTime = 0;
+        } else {
+            idleTime += delta;
+            if (idleTime > IDLE_DEMO_SECONDS && game.assets.isFinished()) {
+                startDemo();
+                return;
+            }
+        }
+        scheduleNextFrame();
+    }
+
+    private void scheduleNextFrame() {
+        if (!game.getGameScreen().isPrepared()) {
+            game.renderScheduler.requestIn(1f / game.menuFps); // Barra de progreso
+        } else {
+            game.renderScheduler.requestIn(IDLE_DEMO_SECONDS - idleTime);
+        }
+    }
+
+    // Avanza la carga unos milisegundos por frame; al terminar prepara la pantalla de juego
+    private void updateLoading() {
+        GameScreen gameScreen = game.getGameScreen();
+        if (gameScreen.isPrepared()) return;
+        if (!game.assets.update(LOAD_BUDGET_MILLIS)) return;
+
+        long start = System.nanoTime();
+        gameScreen.prepare();
+        long end = System.nanoTime();
+        Gdx.app.log("Timing", String.format("Pantalla de juego precargada en %.1f ms (juego listo a %.1f ms de create())",
+            (end - start) / 1e6, (end - game.createNanos) / 1e6));
+        setGameButtonsEnabled(true);
+    }
+
+    private void setGameButtonsEnabled(boolean enabled) {
+        for (TextButton button : gameButtons) {
+            button.setDisabled(!enabled);
+        }
+    }
+
+    private void drawProgressBar(float progress) {
+        float width = 300;
+        float x = (TetrisGame.VIRTUAL_WIDTH - width) / 2;
+        float y = TetrisGame.VIRTUAL_HEIGHT / 2 - 200;
+        Batch batch = stage.getBatch();
+        batch.setProjectionMatrix(stage.getCamera().combined);
+        batch.begin();
+        batch.setColor(Color.DARK_GRAY);
+        batch.draw(white, x, y, width, 12);
+        batch.setColor(Color.WHITE);
+        batch.draw(white, x, y, width * progress, 12);
+        batch.end();
+    }
+
+    private void startDemo() {
+        game.startDemo();
     }
 
     @Override
@@ -111,11 +291,19 @@ public class MainMenuScreen implements Screen {
 
     @Override
     public void dispose() {
+        if (stage == null) return;
         stage.dispose();
+        stage = null;
+        gameButtons.clear();
+        game.resources.release(Resources.MENU_SKIN);
+    }
+
+    @Override
+    public void hide() {
+        game.renderScheduler.cancel();
     }
 
     // Métodos no usados
     @Override public void pause() {}
     @Override public void resume() {}
-    @Override public void hide() {}
 }
@@ -0,0 +1,138 @@
+package com.alex.tetris;
+
+/**
+ * Tabla inmutable con los cuatro estados de rotación de cada pieza, calculada una sola vez
+ * al cargar la clase: forma, máscaras por fila, caja (ancho y alto), fila inferior de cada
+ * columna (para Board.dropY) y desplazamientos de wall kick estilo SRS para cada transición.
+ * Rotar es avanzar un índice y probar la tabla.
+ *
+ * <p>Los arrays devueltos son compartidos: no deben modificarse.
+ */
+public final class PieceShapes {
+    public static final int ROTATIONS = 4;
+
+    static final int[][][] SHAPES = {
+        {{1, 1, 1, 1}},             // I (índice 0)
+        {{1, 1, 1}, {1, 0, 0}},     // L (índice 1)
+        {{1, 1, 1}, {0, 0, 1}},     // J (índice 2)
+        {{1, 1}, {1, 1}},           // O (índice 3)
+        {{1, 1, 0}, {0, 1, 1}},     // S (índice 4)
+        {{0, 1, 1}, {1, 1, 0}},     // Z (índice 5)
+        {{1, 1, 1}, {0, 1, 0}}     // .|. (índice 6)
+    };
+
+    public static final int COUNT = SHAPES.length;
+
+    private static final int TYPE_I = 0;
+    private static final int TYPE_O = 3;
+
+    // Kicks SRS (x, y con y hacia arriba) para 0->L, L->2, 2->R, R->0: la rotación de
+    // la tabla va en sentido antihorario, igual que la rotación original de la matriz.
+    private static final int[][] JLSTZ_KICKS = {
+        {0, 0, +1, 0, +1, +1, 0, -2, +1, -2},
+        {0, 0, -1, 0, -1, -1, 0, +2, -1, +2},
+        {0, 0, -1, 0, -1, +1, 0, -2, -1, -2},
+        {0, 0, +1, 0, +1, -1, 0, +2, +1, +2}
+    };
+    private static final int[][] I_KICKS = {
+        {0, 0, -1, 0, +2, 0, -1, +2, +2, -1},
+        {0, 0, -2, 0, +1, 0, -2, -1, +1, +2},
+        {0, 0, +1, 0, -2, 0, +1, -2, -2, +1},
+        {0, 0, +2, 0, -1, 0, +2, +1, -1, -2}
+    };
+    private static final int[][] O_KICKS = {
+        {0, 0}, {0, 0}, {0, 0}, {0, 0}
+    };
+
+    private static final int[][][][] STATES = new int[COUNT][ROTATIONS][][];
+    private static final int[][][] MASKS = new int[COUNT][ROTATIONS][];
+    private static final int[][] WIDTHS = new int[COUNT][ROTATIONS];
+    private static final int[][] HEIGHTS = new int[COUNT][ROTATIONS];
+    private static final int[][][] BOTTOMS = new int[COUNT][ROTATIONS][];
+    private static final int[][][] KICKS = new int[COUNT][ROTATIONS][];
+
+    static {
+        for (int type = 0; type < COUNT; type++) {
+            int[][] shape = SHAPES[type];
+            int[][] table = type == TYPE_I ? I_KICKS : type == TYPE_O ? O_KICKS : JLSTZ_KICKS;
+
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                STATES[type][rotation] = shape;
+                MASKS[type][rotation] = Board.rowMasks(shape);
+                WIDTHS[type][rotation] = shape[0].length;
+                HEIGHTS[type][rotation] = shape.length;
+                BOTTOMS[type][rotation] = bottoms(shape);
+                shape = rotate(shape);
+            }
+
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                // Recentra la caja al girar (solo afecta a la I) y suma el kick
+                int next = (rotation + 1) % ROTATIONS;
+                int centerX = (WIDTHS[type][rotation] - WIDTHS[type][next]) / 2;
+                int centerY = (HEIGHTS[type][rotation] - HEIGHTS[type][next]) / 2;
+                int[] kicks = table[rotation].clone();
+                for (int i = 0; i < kicks.length; i += 2) {
+                    kicks[i] += centerX;
+                    kicks[i + 1] += centerY;
+                }
+                KICKS[type][rotation] = kicks;
+            }
+        }
+    }
+
+    private PieceShapes() {
+    }
+
+    //  Rotar la matriz de la pieza
+    private static int[][] rotate(int[][] shape) {
+        int[][] rotated = new int[shape[0].length][shape.length];
+        for (int i = 0; i < shape.length; i++) {
+            for (int j = 0; j < shape[0].length; j++) {
+                rotated[j][shape.length - 1 - i] = shape[i][j];
+            }
+        }
+        return rotated;
+    }
+
+    // Fila más baja ocupada de cada columna de la forma
+    private static int[] bottoms(int[][] shape) {
+        int[] bottoms = new int[shape[0].length];
+        for (int col = 0; col < bottoms.length; col++) {
+            int row = 0;
+            while (shape[row][col] == 0) {
+                row++;
+            }
+            bottoms[col] = row;
+        }
+        return bottoms;
+    }
+
+    public static int[][] shape(int type, int rotation) {
+        return STATES[type][rotation];
+    }
+
+    public static int[] rowMasks(int type, int rotation) {
+        return MASKS[type][rotation];
+    }
+
+    public static int width(int type, int rotation) {
+        return WIDTHS[type][rotation];
+    }
+
+    public static int height(int type, int rotation) {
+        return HEIGHTS[type][rotation];
+    }
+
+    public static int[] bottoms(int type, int rotation) {
+        return BOTTOMS[type][rotation];
+    }
+
+    /** Desplazamientos {dx0, dy0, dx1, dy1, ...} a probar al pasar de {@code rotation} a la siguiente. */
+    public static int[] kicks(int type, int rotation) {
+        return KICKS[type][rotation];
+    }
+
+    public static int nextRotation(int rotation) {
+        return (rotation + 1) & (ROTATIONS - 1);
+    }
+}
@@ -0,0 +1,34 @@
+package com.alex.tetris;
+
+import java.util.Random;
+
+/**
+ * Entradas aleatorias: en cada tick, con probabilidad {@code 1 / period}, una entrada al azar.
+ * El generador se siembra con la semilla de la partida, así cada partida es reproducible.
+ */
+public class RandomInputPolicy implements InputPolicy {
+    private static final long SEED_SALT = 0x5DEECE66DL;
+
+    private final Random random = new Random();
+    private final int period;
+
+    /** @param period ticks de media entre dos entradas */
+    public RandomInputPolicy(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1: " + period);
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void reset(TetrisEngine engine) {
+        // Distinta de la del motor para que las entradas no repitan la secuencia de piezas
+        random.setSeed(engine.getSeed() ^ SEED_SALT);
+    }
+
+    @Override
+    public int nextInput(TetrisEngine engine) {
+        if (random.nextInt(period) != 0) return NONE;
+        return random.nextInt(TetrisEngine.INPUT_HARD_DROP + 1);
+    }
+}
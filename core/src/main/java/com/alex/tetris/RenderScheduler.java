@@ -0,0 +1,58 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Timer;
+
+/**
+ * Dibujado bajo demanda. Con {@link #setOnDemand(boolean)} activado libGDX deja de dibujar de
+ * forma continua y solo lo hace cuando llega una entrada o alguien lo pide: cada pantalla, al
+ * terminar su frame, pide el siguiente justo cuando algo vaya a cambiar (la próxima caída de la
+ * pieza, una animación, el fin de la espera del menú). Entre medias la GPU y la CPU descansan.
+ */
+public class RenderScheduler {
+    private boolean onDemand;
+    private long scheduledNanos = Long.MAX_VALUE; // Frame ya pedido al Timer; solo se guarda el más cercano
+
+    private final Timer.Task requestTask = new Timer.Task() {
+        @Override
+        public void run() {
+            scheduledNanos = Long.MAX_VALUE;
+            Gdx.graphics.requestRendering();
+        }
+    };
+
+    public void setOnDemand(boolean onDemand) {
+        this.onDemand = onDemand;
+        Gdx.graphics.setContinuousRendering(!onDemand);
+        if (!onDemand) cancel();
+    }
+
+    public boolean isOnDemand() {
+        return onDemand;
+    }
+
+    /** Pide el siguiente frame lo antes posible. */
+    public void requestNow() {
+        if (onDemand) Gdx.graphics.requestRendering();
+    }
+
+    /** Pide un frame dentro de {@code seconds}, salvo que ya haya otro pedido antes. */
+    public void requestIn(float seconds) {
+        if (!onDemand) return;
+        if (seconds <= 0) {
+            requestNow();
+            return;
+        }
+        long at = System.nanoTime() + (long) (seconds * 1e9);
+        if (requestTask.isScheduled() && scheduledNanos <= at) return;
+        requestTask.cancel();
+        scheduledNanos = at;
+        Timer.schedule(requestTask, seconds);
+    }
+
+    /** Olvida el frame pedido (al cambiar de pantalla). */
+    public void cancel() {
+        requestTask.cancel();
+        scheduledNanos = Long.MAX_VALUE;
+    }
+}
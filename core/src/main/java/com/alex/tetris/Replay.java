@@ -0,0 +1,224 @@
+package com.alex.tetris;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Grabación de una partida: las dimensiones del tablero, las reglas y el nivel inicial, la semilla
+ * del generador y cada entrada con el tick en el que se aplicó. Con eso TetrisEngine reproduce exactamente la misma partida
+ * (ver ReplayPlayer).
+ *
+ * <p>Formato binario (enteros en varint sin signo, 7 bits por byte):
+ * <pre>
+ * "TRPL" | versión | columnas | filas | reglas | nivel inicial | semilla (8 bytes) | nº de entradas
+ * por entrada: (ticks desde la anterior &lt;&lt; 3) | entrada
+ * ticks desde la última entrada hasta el final | puntuación final
+ * </pre>
+ * Casi todas las entradas ocupan uno o dos bytes. La versión 1 no guardaba las dimensiones:
+ * eran siempre las del tablero por defecto. Las versiones 1 y 2 no guardaban las reglas: se
+ * jugaron con {@link TetrisEngine#RULES_CLASSIC}.
+ */
+public class Replay {
+    private static final byte[] MAGIC = {'T', 'R', 'P', 'L'};
+    private static final int VERSION = 3;
+    private static final int INPUT_BITS = 3;
+    private static final int INPUT_MASK = (1 << INPUT_BITS) - 1;
+
+    private final long seed;
+    private final int columns;
+    private final int rows;
+    private final int rules;
+    private final int startLevel;
+    private long[] ticks = new long[64];
+    private byte[] inputs = new byte[64];
+    private int size;
+    private long endTick;
+    private int finalScore;
+
+    /** Grabación de una partida en el tablero por defecto, con las reglas actuales desde el nivel 1. */
+    public Replay(long seed) {
+        this(seed, TetrisGame.BOARD_COLUMNS, TetrisGame.BOARD_ROWS);
+    }
+
+    public Replay(long seed, int columns, int rows) {
+        this(seed, columns, rows, TetrisEngine.RULES_LEVELS, 1);
+    }
+
+    /** Grabación de una partida de {@code engine}, con sus dimensiones, reglas, nivel inicial y semilla. */
+    public Replay(TetrisEngine engine) {
+        this(engine.getSeed(), engine.getBoard().getColumns(), engine.getBoard().getRows(),
+            engine.getRules(), engine.getStartLevel());
+    }
+
+    public Replay(long seed, int columns, int rows, int rules, int startLevel) {
+        this.seed = seed;
+        this.columns = columns;
+        this.rows = rows;
+        this.rules = rules;
+        this.startLevel = startLevel;
+    }
+
+    /** Añade una entrada; los ticks deben llegar en orden no decreciente. */
+    public void record(long tick, int input) {
+        if (input < 0 || input > INPUT_MASK) {
+            throw new IllegalArgumentException("Input does not fit in a replay event: " + input);
+        }
+        if (size > 0 && tick < ticks[size - 1]) {
+            throw new IllegalArgumentException("Replay events out of order: " + tick + " after " + ticks[size - 1]);
+        }
+        if (size == ticks.length) {
+            ticks = Arrays.copyOf(ticks, size * 2);
+            inputs = Arrays.copyOf(inputs, size * 2);
+        }
+        ticks[size] = tick;
+        inputs[size] = (byte) input;
+        size++;
+    }
+
+    /** Cierra la grabación con el tick en el que terminó la partida y su puntuación. */
+    public void finish(long endTick, int finalScore) {
+        this.endTick = endTick;
+        this.finalScore = finalScore;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** {@link TetrisEngine#RULES_LEVELS} o {@link TetrisEngine#RULES_CLASSIC}. */
+    public int getRules() {
+        return rules;
+    }
+
+    public int getStartLevel() {
+        return startLevel;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long tickAt(int index) {
+        return ticks[index];
+    }
+
+    public int inputAt(int index) {
+        return inputs[index];
+    }
+
+    public long getEndTick() {
+        return endTick;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    // Lectura y escritura
+
+    public void write(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        writeVarint(out, VERSION);
+        writeVarint(out, columns);
+        writeVarint(out, rows);
+        writeVarint(out, rules);
+        writeVarint(out, startLevel);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (seed >>> shift));
+        }
+        writeVarint(out, size);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarint(out, (ticks[i] - previous) << INPUT_BITS | inputs[i]);
+            previous = ticks[i];
+        }
+        writeVarint(out, endTick - previous);
+        writeVarint(out, finalScore);
+        out.flush();
+    }
+
+    public static Replay read(InputStream in) throws IOException {
+        for (byte expected : MAGIC) {
+            if (readByte(in) != expected) {
+                throw new IOException("Not a replay file");
+            }
+        }
+        long version = readVarint(in);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        long columns = TetrisGame.BOARD_COLUMNS;
+        long rows = TetrisGame.BOARD_ROWS;
+        if (version >= 2) {
+            columns = readVarint(in);
+            rows = readVarint(in);
+            if (columns < 1 || columns > Board.MAX_COLUMNS || rows < 1 || rows > Board.MAX_ROWS) {
+                throw new IOException("Invalid board size in replay: " + columns + "x" + rows);
+            }
+        }
+        long rules = TetrisEngine.RULES_CLASSIC;
+        long startLevel = 1;
+        if (version >= 3) {
+            rules = readVarint(in);
+            startLevel = readVarint(in);
+            if (rules != TetrisEngine.RULES_CLASSIC && rules != TetrisEngine.RULES_LEVELS
+                || startLevel < 1 || startLevel > TetrisEngine.MAX_LEVEL) {
+                throw new IOException("Invalid rules in replay: " + rules + ", level " + startLevel);
+            }
+        }
+        long seed = 0;
+        for (int i = 0; i < 8; i++) {
+            seed = seed << 8 | readByte(in);
+        }
+
+        Replay replay = new Replay(seed, (int) columns, (int) rows, (int) rules, (int) startLevel);
+        long count = readVarint(in);
+        long tick = 0;
+        for (long i = 0; i < count; i++) {
+            long event = readVarint(in);
+            tick += event >>> INPUT_BITS;
+            replay.record(tick, (int) (event & INPUT_MASK));
+        }
+        replay.finish(tick + readVarint(in), (int) readVarint(in));
+        return replay;
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in replay");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated replay");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,76 @@
+package com.alex.tetris;
+
+/**
+ * Reproduce una Replay sobre un TetrisEngine: reinicia el motor con las reglas y la semilla
+ * grabadas y aplica cada entrada justo antes del tick en el que se grabó. Se puede avanzar a cualquier velocidad
+ * (tantos ticks por frame como se quiera) o de golpe hasta el final para verificar partidas.
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+    private final TetrisEngine engine;
+    private int nextEvent;
+
+    /** @param engine motor con un tablero de las dimensiones de la grabación */
+    public ReplayPlayer(Replay replay, TetrisEngine engine) {
+        Board board = engine.getBoard();
+        if (board.getColumns() != replay.getColumns() || board.getRows() != replay.getRows()) {
+            throw new IllegalArgumentException("Replay recorded on a " + replay.getColumns() + "x" + replay.getRows()
+                + " board, engine has " + board.getColumns() + "x" + board.getRows());
+        }
+        this.replay = replay;
+        this.engine = engine;
+        engine.setRules(replay.getRules(), replay.getStartLevel());
+        engine.reset(replay.getSeed());
+    }
+
+    /**
+     * Avanza hasta {@code ticks} ticks.
+     *
+     * @return false si la reproducción ha terminado
+     */
+    public boolean advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (!step()) return false;
+        }
+        return !isFinished();
+    }
+
+    /** Reproduce el resto de la partida tan rápido como sea posible. */
+    public void runToEnd() {
+        while (step()) {
+        }
+    }
+
+    // Las entradas van antes de comprobar el final: una caída instantánea puede terminar la
+    // partida sin que llegue a ejecutarse otro tick
+    private boolean step() {
+        applyPendingInputs();
+        if (isFinished()) return false;
+        engine.tick();
+        return true;
+    }
+
+    private void applyPendingInputs() {
+        long tick = engine.getTickCount();
+        while (nextEvent < replay.size() && replay.tickAt(nextEvent) == tick) {
+            engine.applyInput(replay.inputAt(nextEvent));
+            nextEvent++;
+        }
+    }
+
+    public boolean isFinished() {
+        return engine.isGameOver() || engine.getTickCount() >= replay.getEndTick();
+    }
+
+    /** Tras terminar, indica si el motor ha llegado al mismo final que la partida grabada. */
+    public boolean matchesRecording() {
+        return isFinished()
+            && nextEvent == replay.size()
+            && engine.getTickCount() == replay.getEndTick()
+            && engine.getScore() == replay.getFinalScore();
+    }
+
+    public TetrisEngine getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,134 @@
+package com.alex.tetris;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Registro de los recursos compartidos entre pantallas (skins, fuentes) con cuenta de
+ * referencias: cada pantalla adquiere lo que usa y lo libera en su dispose(), y el recurso se
+ * destruye cuando deja de usarlo la última. Además cuenta los Stages y FrameBuffers vivos y expone
+ * el número de texturas, para comprobar que ir y volver entre pantallas no deja nada atrás.
+ */
+public class Resources implements Disposable {
+    public static final String MENU_SKIN = "menu.skin";
+    public static final String GAME_SKIN = "game.skin";
+    public static final String HUD_FONT = "hud.font";
+
+    /** Crea el recurso la primera vez que se adquiere. */
+    public interface Factory<T extends Disposable> {
+        T create();
+    }
+
+    private static final class Entry {
+        final Disposable value;
+        int references;
+
+        Entry(Disposable value) {
+            this.value = value;
+        }
+    }
+
+    private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+    private int liveStages;
+    private int liveFrameBuffers;
+
+    /** Devuelve el recurso con esta clave, creándolo si no existe, y suma una referencia. */
+    @SuppressWarnings("unchecked")
+    public <T extends Disposable> T acquire(String key, Factory<T> factory) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(factory.create());
+            entries.put(key, entry);
+        }
+        entry.references++;
+        return (T) entry.value;
+    }
+
+    /** Resta una referencia; con la última se libera el recurso. */
+    public void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            throw new GdxRuntimeException("Releasing a resource that is not registered: " + key);
+        }
+        if (--entry.references == 0) {
+            entries.remove(key);
+            entry.value.dispose();
+        }
+    }
+
+    public int getReferences(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.references : 0;
+    }
+
+    /** Recursos registrados ahora mismo. */
+    public int size() {
+        return entries.size;
+    }
+
+    /** Stage que usa el batch compartido y se descuenta de {@link #getLiveStages()} al liberarse. */
+    public Stage newStage(Viewport viewport, Batch batch) {
+        liveStages++;
+        return new Stage(viewport, batch) {
+            private boolean disposed;
+
+            @Override
+            public void dispose() {
+                if (!disposed) {
+                    disposed = true;
+                    liveStages--;
+                }
+                super.dispose();
+            }
+        };
+    }
+
+    public int getLiveStages() {
+        return liveStages;
+    }
+
+    /** FrameBuffer sin profundidad que se descuenta de {@link #getLiveFrameBuffers()} al liberarse. */
+    public FrameBuffer newFrameBuffer(Pixmap.Format format, int width, int height) {
+        liveFrameBuffers++;
+        return new FrameBuffer(format, width, height, false) {
+            private boolean disposed;
+
+            @Override
+            public void dispose() {
+                if (!disposed) {
+                    disposed = true;
+                    liveFrameBuffers--;
+                }
+                super.dispose();
+            }
+        };
+    }
+
+    public int getLiveFrameBuffers() {
+        return liveFrameBuffers;
+    }
+
+    /**
+     * Texturas gestionadas vivas (se recargan al perder el contexto). No incluye la textura de
+     * color de cada FrameBuffer, que no es gestionada: esas se cuentan con {@link #getLiveFrameBuffers()}.
+     */
+    public static int getLiveTextures() {
+        return Texture.getNumManagedTextures();
+    }
+
+    /** Libera todo lo que quede registrado, tenga o no referencias (al cerrar el juego). */
+    @Override
+    public void dispose() {
+        for (Entry entry : entries.values()) {
+            entry.value.dispose();
+        }
+        entries.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package com.alex.tetris;
+
+/**
+ * Repite en bucle un guion de entradas, un carácter por tick:
+ * {@code L} izquierda, {@code R} derecha, {@code U} rotar, {@code D} activar caída rápida,
+ * {@code d} desactivarla, {@code H} caída instantánea y {@code .} sin entrada.
+ * Por ejemplo {@code "LL..U...H"}.
+ */
+public class ScriptedInputPolicy implements InputPolicy {
+    private final int[] script;
+    private int position;
+
+    public ScriptedInputPolicy(String script) {
+        if (script.isEmpty()) {
+            throw new IllegalArgumentException("Empty input script");
+        }
+        this.script = new int[script.length()];
+        for (int i = 0; i < script.length(); i++) {
+            this.script[i] = parse(script.charAt(i));
+        }
+    }
+
+    private static int parse(char c) {
+        switch (c) {
+            case 'L': return TetrisEngine.INPUT_MOVE_LEFT;
+            case 'R': return TetrisEngine.INPUT_MOVE_RIGHT;
+            case 'U': return TetrisEngine.INPUT_ROTATE;
+            case 'D': return TetrisEngine.INPUT_SOFT_DROP_ON;
+            case 'd': return TetrisEngine.INPUT_SOFT_DROP_OFF;
+            case 'H': return TetrisEngine.INPUT_HARD_DROP;
+            case '.': return NONE;
+            default: throw new IllegalArgumentException("Unknown script input: '" + c + "'");
+        }
+    }
+
+    @Override
+    public void reset(TetrisEngine engine) {
+        position = 0;
+    }
+
+    @Override
+    public int nextInput(TetrisEngine engine) {
+        int input = script[position];
+        position = position + 1 == script.length ? 0 : position + 1;
+        return input;
+    }
+}
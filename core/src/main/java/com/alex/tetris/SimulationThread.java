@@ -0,0 +1,105 @@
+package com.alex.tetris;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hace avanzar un TetrisEngine en su propio hilo a {@link TetrisGame#TICKS_PER_SECOND} fijos, para
+ * que un frame lento (subida de texturas, GC) no retrase la gravedad ni las entradas. Las entradas
+ * llegan por una {@link InputQueue} y se aplican antes de cada tick; tras cada tick el estado se
+ * publica en un {@link SnapshotBuffer} que el hilo de render lee sin esperar.
+ *
+ * <p>Mientras corre, el motor es solo de este hilo. Tras {@link #stop()} vuelve a ser del que llama.
+ */
+public class SimulationThread implements Runnable {
+    private static final int INPUT_CAPACITY = 64;
+    private static final long TICK_NANOS = 1_000_000_000L / TetrisGame.TICKS_PER_SECOND;
+    private static final long MAX_LAG_NANOS = (long) (TetrisGame.MAX_FRAME_TIME * 1e9);
+
+    private final TetrisEngine engine;
+    private final SnapshotBuffer snapshots;
+    private final InputQueue inputs = new InputQueue(INPUT_CAPACITY);
+    private int unsentInput = InputPolicy.NONE; // No cupo en la cola; es del hilo que envía
+    private volatile boolean running;
+    private volatile boolean paused;
+    private Thread thread;
+
+    public SimulationThread(TetrisEngine engine) {
+        this.engine = engine;
+        Board board = engine.getBoard();
+        snapshots = new SnapshotBuffer(board.getColumns(), board.getRows());
+        snapshots.publish(engine); // Hay algo que dibujar antes del primer tick
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Para el hilo y espera a que termine. */
+    public void stop() {
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Encola para los siguientes ticks las entradas del jugador ocurridas hasta {@code now}. Con la
+     * cola llena (el hilo va retrasado) no se pierde nada: la entrada que no cabe se guarda, el resto
+     * sigue en {@code input} y en la siguiente llamada van en el mismo orden.
+     */
+    public void sendInput(InputPipeline input, long now) {
+        int next = unsentInput != InputPolicy.NONE ? unsentInput : input.poll(now);
+        while (next != InputPolicy.NONE && inputs.offer(next)) {
+            next = input.poll(now);
+        }
+        unsentInput = next;
+    }
+
+    /** Estado más reciente; es del hilo que llama hasta la siguiente llamada. */
+    public GameSnapshot latest() {
+        return snapshots.latest();
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            // Tras una parada larga (suspensión, depurador) no se recupera todo de golpe
+            if (now - next > MAX_LAG_NANOS) {
+                next = now;
+            }
+            next += TICK_NANOS;
+            if (paused) continue;
+            tick();
+        }
+    }
+
+    /**
+     * Un tick: las entradas encoladas, el avance del motor y la publicación del estado. Lo llama
+     * run(); sin {@link #start()} puede llamarlo el dueño del motor, como hace AllocationCheck.
+     */
+    public void tick() {
+        for (int input = inputs.poll(); input != InputPolicy.NONE; input = inputs.poll()) {
+            engine.applyInput(input);
+        }
+        engine.tick();
+        snapshots.publish(engine);
+    }
+}
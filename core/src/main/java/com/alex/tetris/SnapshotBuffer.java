@@ -0,0 +1,39 @@
+package com.alex.tetris;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple búfer de instantáneas entre un hilo que escribe y otro que lee, sin bloqueos: el escritor
+ * rellena su instantánea y la intercambia por la del medio; el lector, si hay una nueva en el medio,
+ * la intercambia por la suya. Cada hilo es dueño exclusivo de la instantánea que tiene, así que
+ * ninguno espera al otro y el lector siempre ve un estado completo (el más reciente publicado).
+ */
+public class SnapshotBuffer {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4; // La instantánea del medio no la ha visto el lector
+
+    private final GameSnapshot[] snapshots = new GameSnapshot[3];
+    private final AtomicInteger middle = new AtomicInteger(2);
+    private int back = 0;  // Solo la toca el escritor
+    private int front = 1; // Solo la toca el lector
+
+    public SnapshotBuffer(int columns, int rows) {
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = new GameSnapshot(columns, rows);
+        }
+    }
+
+    /** Escritor: copia el estado del motor y lo publica. */
+    public void publish(TetrisEngine engine) {
+        snapshots[back].copyFrom(engine);
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /** Lector: la última instantánea publicada; sigue siendo suya hasta la siguiente llamada. */
+    public GameSnapshot latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,309 @@
+package com.alex.tetris;
+
+import static com.alex.tetris.TetrisGame.*;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pantalla de espectador: una cuadrícula de partidas independientes jugadas por el bot, para
+ * pantallas de exposición y torneos de bots. Cada frame los ticks de todas las partidas se
+ * reparten entre los hilos del pool común y, cuando terminan, todos los tableros se dibujan en
+ * una sola pasada de un SpriteBatch grande: todas las regiones están en la página del GameAtlas,
+ * así que no hay cambios de textura y cada tablero es un fondo más sus celdas ocupadas.
+ *
+ * <p>Arriba a la izquierda se muestra el presupuesto del frame: tiempo de simulación y de dibujo
+ * frente a los 16,7 ms de un frame a 60 fps.
+ */
+public class SpectatorScreen implements Screen {
+    public static final int DEFAULT_GAMES = 64;
+
+    private static final int TICKS_PER_INPUT = 4;   // Ritmo del bot; 1 sería instantáneo
+    private static final int GAMES_PER_TASK = 8;    // Partidas que simula cada tarea del pool
+    private static final int GAP = 2;               // Celdas de separación entre tableros
+    private static final int MAX_BATCH_SIZE = 8191; // Máximo de SpriteBatch; no cabe todo si hay muchas pilas altas
+    private static final int SPRITES_PER_GAME = BOARD_ROWS * BOARD_COLUMNS + 5; // Fondo, celdas llenas y pieza
+    private static final float REPORT_SECONDS = 0.5f;
+    private static final float LOG_SECONDS = 5f;
+    private static final float FRAME_BUDGET_MILLIS = 1000f / 60;
+
+    private final TetrisGame game;
+    private final int gameCount;
+    private final int gridColumns;
+    private final int gridRows;
+    private final TetrisEngine[] engines;
+    private final BotPolicy[] policies;
+    private final SimulationTask[] tasks;
+    private final FixedTimestep timestep = new FixedTimestep(TICKS_PER_SECOND, MAX_FRAME_TIME);
+    private int steps; // Ticks del frame actual, leídos por las tareas
+
+    // Recursos de dibujo; se crean en el primer show()
+    private SpriteBatch batch;
+    private GameAtlas atlas;
+    private Viewport gridViewport;
+    private Viewport textViewport;
+    private BitmapFont font;
+    private BitmapFontCache report;
+    private final StringBuilder text = new StringBuilder(128);
+
+    // Presupuesto del frame, promediado entre informes
+    private long simulationNanos;
+    private long drawNanos;
+    private int reportFrames;
+    private float reportTime;
+    private float logTime;
+    private int renderCalls;
+
+    public SpectatorScreen(TetrisGame game) {
+        this(game, DEFAULT_GAMES);
+    }
+
+    public SpectatorScreen(TetrisGame game, int gameCount) {
+        if (gameCount < 1) {
+            throw new IllegalArgumentException("gameCount must be positive: " + gameCount);
+        }
+        this.game = game;
+        this.gameCount = gameCount;
+        gridColumns = (int) Math.ceil(Math.sqrt(gameCount));
+        gridRows = (gameCount + gridColumns - 1) / gridColumns;
+
+        engines = new TetrisEngine[gameCount];
+        policies = new BotPolicy[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            // Reglas clásicas: con los 20G de los niveles altos el bot acaba perdiendo y el tablero se reiniciaría
+            long seed = System.nanoTime() + i;
+            engines[i] = new TetrisEngine(seed);
+            engines[i].setRules(TetrisEngine.RULES_CLASSIC, 1);
+            engines[i].reset(seed);
+            // Cada partida tiene su bot y busca en el hilo que la simula
+            policies[i] = new BotPolicy(new Bot(BOARD_COLUMNS, BOARD_ROWS, null), TICKS_PER_INPUT);
+        }
+        tasks = new SimulationTask[(gameCount + GAMES_PER_TASK - 1) / GAMES_PER_TASK];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new SimulationTask(i * GAMES_PER_TASK, Math.min(gameCount, (i + 1) * GAMES_PER_TASK));
+        }
+    }
+
+    @Override
+    public void show() {
+        if (batch == null) {
+            batch = new SpriteBatch(Math.min(MAX_BATCH_SIZE, gameCount * SPRITES_PER_GAME));
+            atlas = game.assets.finishLoadingAsset(GameAtlas.ASSET_NAME);
+            // Una unidad de mundo = una celda
+            gridViewport = new FitViewport(gridColumns * (BOARD_COLUMNS + GAP), gridRows * (BOARD_ROWS + GAP));
+            textViewport = new ScreenViewport();
+            font = atlas.newFont();
+            report = font.newFontCache();
+        }
+        for (int i = 0; i < gameCount; i++) {
+            engines[i].reset();
+            policies[i].reset(engines[i]);
+        }
+        timestep.reset();
+        game.renderScheduler.setOnDemand(false); // Siempre hay algo moviéndose
+        resetReport();
+        logTime = 0;
+        Gdx.input.setInputProcessor(null);
+    }
+
+    @Override
+    public void render(float delta) {
+        if (Gdx.input.justTouched() || Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)
+            || Gdx.input.isKeyJustPressed(Input.Keys.BACK)) {
+            game.showMenu();
+            return;
+        }
+
+        long start = System.nanoTime();
+        simulate(timestep.advance(delta));
+        long simulated = System.nanoTime();
+        draw();
+        long drawn = System.nanoTime();
+
+        simulationNanos += simulated - start;
+        drawNanos += drawn - simulated;
+        reportFrames++;
+        reportTime += delta;
+        if (reportTime >= REPORT_SECONDS) {
+            updateReport();
+        }
+        drawReport();
+    }
+
+    // Simulación
+
+    private void simulate(int ticks) {
+        if (ticks == 0) return;
+        steps = ticks;
+        // Las tareas se reutilizan: el hilo de render hace la primera y espera al resto
+        for (int i = 1; i < tasks.length; i++) {
+            tasks[i].reinitialize();
+            ForkJoinPool.commonPool().execute(tasks[i]);
+        }
+        tasks[0].run(steps);
+        for (int i = 1; i < tasks.length; i++) {
+            tasks[i].join();
+        }
+    }
+
+    /** Un grupo de partidas consecutivas, simulado en un hilo del pool. */
+    private final class SimulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        SimulationTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            run(steps);
+        }
+
+        void run(int ticks) {
+            for (int g = from; g < to; g++) {
+                TetrisEngine engine = engines[g];
+                BotPolicy policy = policies[g];
+                for (int t = 0; t < ticks; t++) {
+                    int input = policy.nextInput(engine);
+                    if (input != InputPolicy.NONE) engine.applyInput(input);
+                    engine.tick();
+                    if (engine.isGameOver()) {
+                        engine.reset();
+                        policy.reset(engine);
+                    }
+                }
+            }
+        }
+    }
+
+    // Dibujo
+
+    private void draw() {
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        gridViewport.apply();
+        batch.setProjectionMatrix(gridViewport.getCamera().combined);
+        batch.begin();
+        for (int i = 0; i < gameCount; i++) {
+            float x = (i % gridColumns) * (BOARD_COLUMNS + GAP) + GAP / 2f;
+            float y = (gridRows - 1 - i / gridColumns) * (BOARD_ROWS + GAP) + GAP / 2f;
+            drawGame(engines[i], x, y);
+        }
+        batch.end();
+        renderCalls = batch.renderCalls;
+    }
+
+    // Fondo de un solo quad, las celdas ocupadas (solo hasta la pila) y la pieza actual
+    private void drawGame(TetrisEngine engine, float x, float y) {
+        Board board = engine.getBoard();
+        batch.setColor(0.12f, 0.12f, 0.12f, 1);
+        batch.draw(atlas.white, x, y, board.getColumns(), board.getRows());
+        batch.setColor(1, 1, 1, 1);
+
+        for (int row = 0; row < board.getStackHeight(); row++) {
+            long cells = board.getRowMask(row);
+            while (cells != 0) {
+                int col = Long.numberOfTrailingZeros(cells);
+                batch.draw(atlas.pieces[board.getColor(row, col) - 1], x + col, y + row, 1, 1);
+                cells &= cells - 1;
+            }
+        }
+
+        TetrisPiece piece = engine.getCurrentPiece();
+        TextureRegion texture = atlas.pieces[piece.type];
+        int[] masks = piece.rowMasks();
+        for (int r = 0; r < masks.length; r++) {
+            int row = piece.y + r;
+            if (row >= board.getRows()) break;
+            int bits = masks[r];
+            while (bits != 0) {
+                int col = Integer.numberOfTrailingZeros(bits);
+                batch.draw(texture, x + piece.x + col, y + row, 1, 1);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    // Presupuesto del frame
+
+    private void updateReport() {
+        float simulationMillis = simulationNanos / 1e6f / reportFrames;
+        float drawMillis = drawNanos / 1e6f / reportFrames;
+        int fps = Math.round(reportFrames / reportTime);
+
+        text.setLength(0);
+        text.append(gameCount).append(" partidas  ").append(fps).append(" fps  ")
+            .append(renderCalls).append(" lotes\nsim ");
+        appendMillis(simulationMillis);
+        text.append(" ms + dibujo ");
+        appendMillis(drawMillis);
+        text.append(" ms de ");
+        appendMillis(FRAME_BUDGET_MILLIS);
+        text.append(" ms (").append(Math.round(100 * (simulationMillis + drawMillis) / FRAME_BUDGET_MILLIS))
+            .append("%)");
+        report.setText(text, 8, textViewport.getWorldHeight() - 8);
+
+        logTime += reportTime;
+        if (logTime >= LOG_SECONDS) {
+            logTime = 0;
+            Gdx.app.log("Spectator", text.toString().replace('\n', ' '));
+        }
+        resetReport();
+    }
+
+    private void appendMillis(float millis) {
+        int tenths = Math.round(millis * 10);
+        text.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    private void resetReport() {
+        simulationNanos = 0;
+        drawNanos = 0;
+        reportFrames = 0;
+        reportTime = 0;
+    }
+
+    private void drawReport() {
+        textViewport.apply();
+        batch.setProjectionMatrix(textViewport.getCamera().combined);
+        batch.begin();
+        report.draw(batch);
+        batch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        gridViewport.update(width, height, true);
+        textViewport.update(width, height, true); // El texto se recoloca en el siguiente informe
+    }
+
+    @Override
+    public void dispose() {
+        if (batch == null) return;
+        batch.dispose();
+        font.dispose();
+        batch = null;
+    }
+
+    @Override public void pause() {}
+    @Override public void resume() {}
+    @Override public void hide() {}
+}
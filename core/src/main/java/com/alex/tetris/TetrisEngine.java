@@ -0,0 +1,490 @@
+package com.alex.tetris;
+
+import static com.alex.tetris.TetrisGame.*;
+
+import java.util.Random;
+
+/**
+ * Reglas del juego sin dependencias de libGDX: tablero, pieza actual y siguiente,
+ * puntuación y generador aleatorio. GameScreen solo dibuja su estado y le pasa las
+ * entradas, así que una partida puede simularse sin contexto gráfico.
+ */
+public class TetrisEngine {
+
+    /** Recibe los sucesos del juego que la capa visual convierte en sonidos o cambios de pantalla. */
+    public interface Listener {
+        void onPiecePlaced();
+
+        void onLinesCleared(int lines);
+
+        void onGameOver();
+    }
+
+    // Entradas
+    public static final int INPUT_MOVE_LEFT = 0;
+    public static final int INPUT_MOVE_RIGHT = 1;
+    public static final int INPUT_ROTATE = 2;
+    public static final int INPUT_SOFT_DROP_ON = 3;
+    public static final int INPUT_SOFT_DROP_OFF = 4;
+    public static final int INPUT_HARD_DROP = 5;
+
+    public static final float FAST_DROP_SPEED = 0.02f; // Intervalo de caída rápida (más pequeño = más rápido)
+
+    /** Reglas de las repeticiones antiguas: gravedad fija, y la pieza se fija en cuanto toca el suelo. */
+    public static final int RULES_CLASSIC = 0;
+    /** Niveles con curva de gravedad hasta 20G, retardo de bloqueo y caída resuelta en un solo paso. */
+    public static final int RULES_LEVELS = 1;
+
+    public static final int LINES_PER_LEVEL = 10;
+    public static final int MAX_LEVEL = 20;
+    public static final float MAX_GRAVITY = 20f;     // Filas por tick (20G)
+    public static final int LOCK_DELAY_TICKS = 30;   // Medio segundo apoyada antes de fijarse
+    public static final int MAX_LOCK_RESETS = 15;    // Movimientos que reinician el retardo sin bajar
+
+    // Gravedad de cada nivel en filas por tick, con la curva de las guías oficiales:
+    // (0,8 - (nivel - 1) * 0,007) ^ (nivel - 1) segundos por fila. StrictMath para que la tabla
+    // sea idéntica en cualquier JVM y las repeticiones no dependan de la plataforma
+    private static final float[] LEVEL_GRAVITY = new float[MAX_LEVEL + 1];
+    private static final float SOFT_DROP_GRAVITY = gravityForInterval(FAST_DROP_SPEED);
+
+    static {
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            double secondsPerRow = StrictMath.pow(0.8 - (level - 1) * 0.007, level - 1);
+            LEVEL_GRAVITY[level] = (float) Math.min(MAX_GRAVITY, 1 / (secondsPerRow * TICKS_PER_SECOND));
+        }
+    }
+
+    // Cada partida tiene su propio generador con semilla, así puede reproducirse
+    private final Random random = new Random();
+    private long seed;
+    private Listener listener;
+    private Replay recorder; // Si no es null, cada entrada aplicada se graba aquí
+    private GameTelemetry telemetry; // Null salvo que el launcher active la telemetría
+
+    // Estado del juego
+    private final Board board; // Dimensiones fijadas al crear el motor
+    // Las tres piezas se reutilizan durante toda la partida
+    private TetrisPiece currentPiece = new TetrisPiece(0);
+    private TetrisPiece nextPiece = new TetrisPiece(0);
+    private final TetrisPiece ghostPiece = new TetrisPiece(0);
+    private int score = 0;
+    private int linesCleared = 0;
+    private int piecesPlaced = 0;
+    private boolean gameOver = false;
+
+    // Gravedad en filas por tick; el progreso acumula las fracciones de fila entre ticks
+    private float gravity = gravityForInterval(DEFAULT_DROP_INTERVAL);
+    private float gravityProgress = 0;
+    private boolean fastDropActive = false;
+    private long tickCount = 0;
+
+    // Niveles y retardo de bloqueo. Las reglas y el nivel inicial de la partida en curso; los
+    // pedidos con setRules() esperan al siguiente reset()
+    private int rules = RULES_LEVELS;
+    private int startLevel = 1;
+    private int nextRules = RULES_LEVELS;
+    private int nextStartLevel = 1;
+    private int level = 1;
+    private int lockTicks = 0;   // Ticks seguidos apoyada
+    private int lockResets = 0;  // Reinicios del retardo gastados desde la fila más baja alcanzada
+    private int lowestY;
+
+    public TetrisEngine() {
+        this(System.nanoTime());
+    }
+
+    public TetrisEngine(long seed) {
+        this(BOARD_COLUMNS, BOARD_ROWS, seed);
+    }
+
+    /** Motor con un tablero de otras dimensiones (hasta {@link Board#MAX_COLUMNS} columnas). */
+    public TetrisEngine(int columns, int rows, long seed) {
+        board = new Board(columns, rows);
+        reset(seed);
+    }
+
+    /** Empieza una partida nueva con una semilla sacada del generador actual. */
+    public void reset() {
+        reset(random.nextLong());
+    }
+
+    /** Empieza una partida nueva con esta semilla, reutilizando el tablero y las piezas. */
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        board.clear();
+        score = 0;
+        linesCleared = 0;
+        piecesPlaced = 0;
+        gameOver = false;
+        gravityProgress = 0;
+        tickCount = 0;
+        rules = nextRules;
+        startLevel = nextStartLevel;
+        level = startLevel;
+        deactivateFastDrop();
+
+        randomizePiece(nextPiece);
+        spawnNewPiece();
+    }
+
+    /**
+     * Reglas ({@link #RULES_LEVELS} o {@link #RULES_CLASSIC}) y nivel inicial de las partidas a
+     * partir del siguiente {@link #reset}; la partida en curso sigue con las suyas. Las
+     * repeticiones guardan ambos.
+     */
+    public void setRules(int rules, int startLevel) {
+        if (rules != RULES_CLASSIC && rules != RULES_LEVELS) {
+            throw new IllegalArgumentException("Unknown rules: " + rules);
+        }
+        if (startLevel < 1 || startLevel > MAX_LEVEL) {
+            throw new IllegalArgumentException("Start level must be between 1 and " + MAX_LEVEL + ": " + startLevel);
+        }
+        nextRules = rules;
+        nextStartLevel = startLevel;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Graba en {@code replay} cada entrada que se aplique a partir de ahora (null para dejar de grabar). */
+    public void setRecorder(Replay replay) {
+        this.recorder = replay;
+    }
+
+    /** Envía los sucesos de la partida a {@code telemetry} (null para desactivarlo). */
+    public void setTelemetry(GameTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    // Avance del juego
+
+    /** Gravedad (filas por tick) equivalente a bajar una fila cada {@code seconds} segundos. */
+    public static float gravityForInterval(float seconds) {
+        return 1f / (seconds * TICKS_PER_SECOND);
+    }
+
+    /** Gravedad (filas por tick) de un nivel; a partir de {@link #MAX_LEVEL} es la máxima. */
+    public static float gravityForLevel(int level) {
+        return LEVEL_GRAVITY[Math.max(1, Math.min(MAX_LEVEL, level))];
+    }
+
+    /**
+     * Ticks hasta el próximo cambio sin entradas entre medias: que la gravedad baje la pieza o,
+     * si ya está apoyada, que se fije.
+     */
+    public int getTicksUntilDrop() {
+        if (rules == RULES_LEVELS && currentPiece.y == ghostPiece.y) {
+            return Math.max(1, LOCK_DELAY_TICKS - lockTicks);
+        }
+        return Math.max(1, (int) Math.ceil((1 - gravityProgress) / gravity));
+    }
+
+    /**
+     * Un tick de simulación de duración fija (1 / TICKS_PER_SECOND): aplica la gravedad
+     * acumulada, bajando la pieza o colocándola si ya no puede bajar.
+     */
+    public void tick() {
+        if (gameOver) return;
+        tickCount++;
+        gravityProgress += gravity;
+        if (rules == RULES_CLASSIC) {
+            while (gravityProgress >= 1 && !gameOver) {
+                gravityProgress -= 1;
+                movePieceDown();
+            }
+            return;
+        }
+
+        // Todas las filas del tick de una vez: la fila de la pieza fantasma es el tope, así que
+        // 20G cuesta lo mismo que bajar una fila
+        int rows = (int) gravityProgress;
+        gravityProgress -= rows;
+        if (rows > 0) dropRows(rows);
+        if (currentPiece.y == ghostPiece.y && ++lockTicks >= LOCK_DELAY_TICKS) {
+            lockPiece();
+        }
+    }
+
+    public void applyInput(int input) {
+        if (gameOver) return;
+        if (recorder != null) recorder.record(tickCount, input);
+        switch (input) {
+            case INPUT_MOVE_LEFT: movePiece(-1); break;
+            case INPUT_MOVE_RIGHT: movePiece(1); break;
+            case INPUT_ROTATE: rotatePiece(); break;
+            case INPUT_SOFT_DROP_ON: activateFastDrop(); break;
+            case INPUT_SOFT_DROP_OFF: deactivateFastDrop(); break;
+            case INPUT_HARD_DROP: hardDrop(); break;
+            default: throw new IllegalArgumentException("Unknown input: " + input);
+        }
+    }
+
+    // Metodos privados para el juego
+
+    private void activateFastDrop() {
+        fastDropActive = true;
+        updateGravity(); // Cambia la velocidad de caída
+    }
+
+    private void deactivateFastDrop() {
+        fastDropActive = false;
+        updateGravity(); // Vuelve a la velocidad normal
+    }
+
+    // La caída rápida nunca es más lenta que la gravedad del nivel. Ningún tablero cae más de su altura por tick
+    private void updateGravity() {
+        float base = rules == RULES_CLASSIC ? gravityForInterval(DEFAULT_DROP_INTERVAL) : gravityForLevel(level);
+        gravity = Math.min(board.getRows(), fastDropActive ? Math.max(base, SOFT_DROP_GRAVITY) : base);
+    }
+
+    // Un movimiento o giro con la pieza apoyada vuelve a dar todo el retardo, un número limitado de veces
+    private void resetLockDelay() {
+        if (lockTicks == 0 || lockResets >= MAX_LOCK_RESETS) return;
+        lockTicks = 0;
+        lockResets++;
+    }
+
+    private void rotatePiece() {
+        if (currentPiece == null) return;
+
+        int type = currentPiece.type;
+        int from = currentPiece.rotation;
+        int next = PieceShapes.nextRotation(from);
+        int[] masks = PieceShapes.rowMasks(type, next);
+        int width = PieceShapes.width(type, next);
+
+        // Probar los desplazamientos de la tabla de kicks en orden
+        int[] kicks = PieceShapes.kicks(type, from);
+        for (int i = 0; i < kicks.length; i += 2) {
+            int testX = currentPiece.x + kicks[i];
+            int testY = currentPiece.y + kicks[i + 1];
+            if (!board.collides(masks, testX, testY, width)) {
+                currentPiece.rotation = next;
+                currentPiece.x = testX;
+                currentPiece.y = testY;
+                updateGhostPiece();
+                resetLockDelay();
+                if (telemetry != null) telemetry.rotation(type, from, true);
+                return;
+            }
+        }
+        if (telemetry != null) telemetry.rotation(type, from, false);
+    }
+
+    private void movePiece(int direction) {
+        if (currentPiece == null) return;
+
+        if (!board.collides(currentPiece.rowMasks(), currentPiece.x + direction, currentPiece.y, currentPiece.width())) {
+            currentPiece.x += direction;
+            updateGhostPiece();
+            resetLockDelay();
+        }
+    }
+
+    /** Coloca la pieza directamente en la posición de la pieza fantasma. */
+    private void hardDrop() {
+        currentPiece.y = ghostPiece.y;
+        lockPiece();
+    }
+
+    // Solo hace falta al cambiar la columna o la rotación de la pieza, o el tablero:
+    // bajar la pieza no cambia dónde va a caer
+    private void updateGhostPiece() {
+        if (currentPiece == null) return;
+
+        ghostPiece.set(currentPiece);
+        ghostPiece.y = board.dropY(
+            currentPiece.rowMasks(),
+            PieceShapes.bottoms(currentPiece.type, currentPiece.rotation),
+            currentPiece.x, currentPiece.y, currentPiece.width());
+    }
+
+    private void randomizePiece(TetrisPiece piece) {
+        piece.type = random.nextInt(PieceShapes.COUNT);
+        piece.rotation = 0;
+        piece.x = board.getColumns() / 2 - piece.width() / 2;
+        piece.y = board.getRows() - piece.height();
+    }
+
+    private void spawnNewPiece() {
+        // La siguiente pasa a ser la actual y la antigua actual se reutiliza como siguiente
+        TetrisPiece previous = currentPiece;
+        currentPiece = nextPiece;
+        nextPiece = previous;
+        randomizePiece(nextPiece);
+        updateGhostPiece();
+        lockTicks = 0;
+        lockResets = 0;
+        lowestY = currentPiece.y;
+        if (telemetry != null) telemetry.pieceSpawned(currentPiece.type);
+    }
+
+    public boolean checkCollision(TetrisPiece piece) {
+        return board.collides(piece.rowMasks(), piece.x, piece.y, piece.width());
+    }
+
+    private void movePieceDown() {
+        if (currentPiece == null) return;
+
+        if (currentPiece.y > ghostPiece.y) {
+            currentPiece.y--;
+        } else {
+            lockPiece();
+        }
+    }
+
+    // Baja la pieza hasta {@code rows} filas en un solo paso, sin pasar de la fila de la pieza fantasma
+    private void dropRows(int rows) {
+        int y = Math.max(ghostPiece.y, currentPiece.y - rows);
+        if (y == currentPiece.y) return;
+        currentPiece.y = y;
+        lockTicks = 0;
+        if (y < lowestY) {
+            lowestY = y;
+            lockResets = 0;
+        }
+    }
+
+    private void lockPiece() {
+        gravityProgress = 0; // La nueva pieza empieza su intervalo de caída desde cero
+
+        // Solo colocar la pieza si al menos parte de ella está dentro del tablero
+        boolean shouldPlace = currentPiece.y + currentPiece.height() > 0;
+
+        if (shouldPlace) {
+            placePiece();
+            deactivateFastDrop();
+        }
+        spawnNewPiece();
+
+        // Game over si la nueva pieza colisiona inmediatamente
+        if (checkCollision(currentPiece)) {
+            gameOver = true;
+            if (telemetry != null) telemetry.gameOver(score, linesCleared, tickCount);
+            if (listener != null) listener.onGameOver();
+        }
+    }
+
+    private void placePiece() {
+        int colorIndex = currentPiece.type + 1; // 0 = celda vacía
+        board.place(currentPiece.rowMasks(), currentPiece.x, currentPiece.y, colorIndex);
+        piecesPlaced++;
+        if (telemetry != null) {
+            telemetry.piecePlaced(currentPiece.type, currentPiece.rotation, currentPiece.x, currentPiece.y);
+        }
+        if (listener != null) listener.onPiecePlaced();
+        checkCompleteLines(currentPiece.y, currentPiece.y + currentPiece.height());
+    }
+
+    // Solo las filas que ocupa la pieza recién colocada pueden haberse completado
+    private void checkCompleteLines(int fromRow, int toRow) {
+        int lines = board.clearFullRows(fromRow, toRow);
+
+        // 🎯 Aumentar puntuación
+        if (lines > 0) {
+            linesCleared += lines;
+            int newLevel = startLevel + linesCleared / LINES_PER_LEVEL;
+            if (newLevel != level) {
+                level = newLevel;
+                updateGravity();
+            }
+            switch (lines) {
+                case 1: score += 100; break;
+                case 2: score += 300; break;
+                case 3: score += 500; break;
+                case 4: score += 800; break; // Tetris
+                default: score += lines * 200;
+            }
+            if (telemetry != null) telemetry.linesCleared(lines);
+            if (listener != null) listener.onLinesCleared(lines);
+        }
+    }
+
+    // Estado para la capa visual
+
+    /** Valor de la celda: 0 vacía, o el tipo de pieza + 1. */
+    public int getCell(int row, int col) {
+        return board.getColor(row, col);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public TetrisPiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    public TetrisPiece getNextPiece() {
+        return nextPiece;
+    }
+
+    public TetrisPiece getGhostPiece() {
+        return ghostPiece;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /** Líneas completadas en la partida actual. */
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    /** Piezas fijadas en el tablero en la partida actual. */
+    public int getPiecesPlaced() {
+        return piecesPlaced;
+    }
+
+    /** Nivel actual: el inicial más uno cada {@link #LINES_PER_LEVEL} líneas. */
+    public int getLevel() {
+        return level;
+    }
+
+    /** Reglas de la partida en curso (no las pedidas para la siguiente). */
+    public int getRules() {
+        return rules;
+    }
+
+    public int getStartLevel() {
+        return startLevel;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isFastDropActive() {
+        return fastDropActive;
+    }
+
+    /** Filas que cae la pieza por tick con la velocidad actual (nivel y caída rápida). */
+    public float getGravity() {
+        return gravity;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Ticks simulados desde el inicio de la partida. */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    // Debugs
+    public String debugBoard() {
+        StringBuilder sb = new StringBuilder("\nBoard State:\n");
+        for (int y = board.getRows()-1; y >= 0; y--) {
+            sb.append("|");
+            for (int x = 0; x < board.getColumns(); x++) {
+                sb.append(board.isFilled(y, x) ? "X" : " ");
+            }
+            sb.append("|\n");
+        }
+        return sb.toString();
+    }
+}
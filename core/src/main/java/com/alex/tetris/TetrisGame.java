@@ -1,6 +1,8 @@
 package com.alex.tetris;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 public class TetrisGame extends Game {
@@ -10,19 +12,103 @@ public class TetrisGame extends Game {
     public static final int BOARD_COLUMNS = 10;
     public static final int BOARD_ROWS = 20;
     public static final int CELL_SIZE = 35; // Tamaño de cada celda en píxeles
+    // Tablero grande (maratón): la cámara se aleja y lo recorre siguiendo a la pieza
+    public static final int BIG_BOARD_COLUMNS = 40;
+    public static final int BIG_BOARD_ROWS = 400;
 
     public static final float DEFAULT_DROP_INTERVAL = 0.3f;
+    // Simulación a paso fijo
+    public static final int TICKS_PER_SECOND = 60;
+    public static final float MAX_FRAME_TIME = 0.25f; // Segundos de un frame lento que se llegan a simular
+    // En bajo consumo los frames solo se piden cuando algo cambia y pueden estar más separados
+    public static final float LOW_POWER_MAX_FRAME_TIME = 1f;
+    public static final int DEFAULT_MENU_FPS = 30;
 
     public SpriteBatch batch;
+    // Sonidos y atlas; se cargan en segundo plano mientras se muestra el menú
+    public AssetManager assets;
+    // Skins y fuentes compartidas entre pantallas, con cuenta de referencias
+    public Resources resources;
+    // Estadísticas del GC para el perfilador de frames; las pone el launcher si la plataforma las tiene
+    public FrameProfiler.GcStats gcStats;
+    // Sucesos de partida y frames para herramientas externas (JFR en escritorio); null = desactivado
+    public GameTelemetry telemetry;
+    // La partida normal avanza en su propio hilo (SimulationThread) en vez de en el de render
+    public boolean simulationThread;
+    // Bajo consumo (Android en modo quiosco): la partida también se dibuja solo cuando cambia algo
+    public boolean lowPower;
+    // Límite de frames en los menús, que siempre se dibujan bajo demanda
+    public int menuFps = DEFAULT_MENU_FPS;
+    public RenderScheduler renderScheduler;
+    // System.nanoTime al empezar create(), para medir el arranque (logs "Timing")
+    public long createNanos;
+
+    // Las dos pantallas se crean una vez y se reutilizan en cada cambio
+    private MainMenuScreen menuScreen;
+    private GameScreen gameScreen;
+    private SpectatorScreen spectatorScreen; // Se crea la primera vez que se usa
 
     @Override
     public void create() {
+        createNanos = System.nanoTime();
         batch = new SpriteBatch();
-        setScreen(new MainMenuScreen(this));
+        assets = GameAssets.create();
+        resources = new Resources();
+        renderScheduler = new RenderScheduler();
+        menuScreen = new MainMenuScreen(this);
+        gameScreen = new GameScreen(this);
+        showMenu();
+    }
+
+    public void showMenu() {
+        setScreen(menuScreen);
+        Gdx.app.debug("Resources", "Texturas: " + Resources.getLiveTextures()
+            + ", FrameBuffers: " + resources.getLiveFrameBuffers()
+            + ", stages: " + resources.getLiveStages() + ", compartidos: " + resources.size());
+    }
+
+    /** Partida nueva; {@code clickNanos} es el System.nanoTime del clic, para medir el primer frame. */
+    public void startGame(long clickNanos) {
+        startGame(BOARD_COLUMNS, BOARD_ROWS, clickNanos);
+    }
+
+    /** Partida nueva en un tablero de {@code columns} x {@code rows}. */
+    public void startGame(int columns, int rows, long clickNanos) {
+        gameScreen.playGame(columns, rows);
+        gameScreen.setTransitionStart(clickNanos);
+        setScreen(gameScreen);
+    }
+
+    public void startReplay(Replay replay) {
+        gameScreen.playReplay(replay);
+        setScreen(gameScreen);
+    }
+
+    public void startDemo() {
+        gameScreen.playDemo();
+        setScreen(gameScreen);
+    }
+
+    /** Cuadrícula de partidas del bot para pantallas de exposición. */
+    public void startSpectator() {
+        if (spectatorScreen == null) {
+            spectatorScreen = new SpectatorScreen(this);
+        }
+        setScreen(spectatorScreen);
+    }
+
+    public GameScreen getGameScreen() {
+        return gameScreen;
     }
 
     @Override
     public void dispose() {
+        super.dispose(); // Oculta la pantalla actual
+        menuScreen.dispose();
+        gameScreen.dispose();
+        if (spectatorScreen != null) spectatorScreen.dispose();
+        resources.dispose();
+        assets.dispose();
         batch.dispose();
     }
 }
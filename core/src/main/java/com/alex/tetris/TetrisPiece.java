@@ -1,26 +1,89 @@
 package com.alex.tetris;
 
-import com.badlogic.gdx.graphics.Color;
-
-import java.util.Arrays;
-
+/**
+ * Pieza en juego: tipo, rotación y posición. La forma, el color y la textura se buscan por
+ * índice en tablas compartidas (PieceShapes, GameAtlas), así que copiar una pieza son cuatro ints.
+ * El estado completo también cabe en un int (ver {@link #pack()}) para búsquedas, repeticiones
+ * e instantáneas.
+ */
 public class TetrisPiece {
-    public int[][] shape;
+    // Estado empaquetado: tipo (3 bits) | rotación (2) | x (12, con sesgo) | y (15, con sesgo)
+    private static final int ROTATION_SHIFT = 3;
+    private static final int X_SHIFT = 5;
+    private static final int Y_SHIFT = 17;
+    private static final int TYPE_MASK = (1 << ROTATION_SHIFT) - 1;
+    private static final int ROTATION_MASK = (1 << (X_SHIFT - ROTATION_SHIFT)) - 1;
+    private static final int X_MASK = (1 << (Y_SHIFT - X_SHIFT)) - 1;
+    private static final int X_BIAS = 1 << (Y_SHIFT - X_SHIFT - 1);
+    private static final int Y_BIAS = 1 << (Integer.SIZE - Y_SHIFT - 1);
+
+    public int type;     // Índice en PieceShapes (y en los colores de GameScreen)
+    public int rotation; // Estado de rotación, 0..3
     public int x, y;
-    public Color color;
 
-    public TetrisPiece(int[][] shape, Color color) {
-        this.shape = shape;
-        this.color = color;
-        this.x = TetrisGame.BOARD_COLUMNS / 2 - shape[0].length / 2;
-        this.y = TetrisGame.BOARD_ROWS - shape.length;
+    public TetrisPiece(int type) {
+        this.type = type;
+    }
+
+    // La forma sale de la tabla precalculada; no se copia ni se modifica
+
+    public int[][] shape() {
+        return PieceShapes.shape(type, rotation);
+    }
+
+    public int[] rowMasks() {
+        return PieceShapes.rowMasks(type, rotation);
+    }
+
+    public int width() {
+        return PieceShapes.width(type, rotation);
+    }
+
+    public int height() {
+        return PieceShapes.height(type, rotation);
+    }
+
+    public void set(TetrisPiece other) {
+        this.type = other.type;
+        this.rotation = other.rotation;
+        this.x = other.x;
+        this.y = other.y;
+    }
+
+    /** Estado de la pieza en un int; x debe estar en [-2048, 2047] e y en [-16384, 16383]. */
+    public int pack() {
+        return pack(type, rotation, x, y);
+    }
+
+    public void unpack(int packed) {
+        type = type(packed);
+        rotation = rotation(packed);
+        x = x(packed);
+        y = y(packed);
+    }
+
+    public static int pack(int type, int rotation, int x, int y) {
+        assert x >= -X_BIAS && x < X_BIAS && y >= -Y_BIAS && y < Y_BIAS
+            : "Piece position out of packing range: " + x + ", " + y;
+        return type
+            | rotation << ROTATION_SHIFT
+            | ((x + X_BIAS) & X_MASK) << X_SHIFT
+            | (y + Y_BIAS) << Y_SHIFT;
+    }
+
+    public static int type(int packed) {
+        return packed & TYPE_MASK;
+    }
+
+    public static int rotation(int packed) {
+        return (packed >>> ROTATION_SHIFT) & ROTATION_MASK;
+    }
+
+    public static int x(int packed) {
+        return ((packed >>> X_SHIFT) & X_MASK) - X_BIAS;
     }
 
-    public TetrisPiece copy() {
-        int[][] newShape = new int[this.shape.length][];
-        for (int i = 0; i < this.shape.length; i++) {
-            newShape[i] = Arrays.copyOf(this.shape[i], this.shape[i].length);
-        }
-        return new TetrisPiece(newShape, this.color);
+    public static int y(int packed) {
+        return (packed >>> Y_SHIFT) - Y_BIAS;
     }
 }
@@ -0,0 +1,191 @@
+package com.alex.tetris.lwjgl3.jfr;
+
+import com.alex.tetris.FrameProfiler;
+import com.alex.tetris.GameTelemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Emits the game's frames and gameplay events as Java Flight Recorder events, so hitches can be
+ * lined up with GC pauses and JIT activity in JDK Mission Control. Compiled separately for Java 11
+ * (the rest of the desktop module targets Java 8) and only loaded by {@code Lwjgl3Launcher --jfr}.
+ *
+ * <p>Gameplay event objects never escape the method that commits them, so the JIT can drop the
+ * allocation, and none of them records a stack trace.
+ */
+public class JfrTelemetry implements GameTelemetry, Closeable {
+    private final Recording recording;
+    private FrameEvent frame;
+
+    /** Starts a recording with the JDK "profile" settings that is written to {@code file} on close or exit. */
+    public JfrTelemetry(String file) throws IOException, ParseException {
+        Path destination = Paths.get(file).toAbsolutePath();
+        recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName("Tetris");
+        recording.setDestination(destination);
+        recording.setToDisk(true);
+        recording.setDumpOnExit(true);
+        recording.start();
+        System.out.println("Flight recording to " + destination);
+    }
+
+    @Override
+    public void frameBegin() {
+        FrameEvent event = new FrameEvent();
+        if (!event.isEnabled()) return;
+        event.begin();
+        frame = event;
+    }
+
+    @Override
+    public void frameEnd(long[] phaseNanos, int renderCalls) {
+        FrameEvent event = frame;
+        if (event == null) return;
+        frame = null;
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.input = phaseNanos[FrameProfiler.INPUT];
+        event.update = phaseNanos[FrameProfiler.UPDATE];
+        event.board = phaseNanos[FrameProfiler.BOARD];
+        event.pieces = phaseNanos[FrameProfiler.PIECES];
+        event.hud = phaseNanos[FrameProfiler.HUD];
+        event.stage = phaseNanos[FrameProfiler.STAGE];
+        event.pause = phaseNanos[FrameProfiler.PAUSE];
+        event.renderCalls = renderCalls;
+        event.commit();
+    }
+
+    @Override
+    public void pieceSpawned(int type) {
+        PieceSpawnEvent event = new PieceSpawnEvent();
+        if (!event.shouldCommit()) return;
+        event.type = type;
+        event.commit();
+    }
+
+    @Override
+    public void piecePlaced(int type, int rotation, int x, int y) {
+        PiecePlacedEvent event = new PiecePlacedEvent();
+        if (!event.shouldCommit()) return;
+        event.type = type;
+        event.rotation = rotation;
+        event.x = x;
+        event.y = y;
+        event.commit();
+    }
+
+    @Override
+    public void linesCleared(int lines) {
+        LineClearEvent event = new LineClearEvent();
+        if (!event.shouldCommit()) return;
+        event.lines = lines;
+        event.commit();
+    }
+
+    @Override
+    public void rotation(int type, int fromRotation, boolean rotated) {
+        RotationEvent event = new RotationEvent();
+        if (!event.shouldCommit()) return;
+        event.type = type;
+        event.fromRotation = fromRotation;
+        event.rotated = rotated;
+        event.commit();
+    }
+
+    @Override
+    public void gameOver(int score, int linesCleared, long ticks) {
+        GameOverEvent event = new GameOverEvent();
+        if (!event.shouldCommit()) return;
+        event.score = score;
+        event.lines = linesCleared;
+        event.ticks = ticks;
+        event.commit();
+    }
+
+    /** Stops the recording and writes it to the destination file. */
+    @Override
+    public void close() {
+        recording.stop();
+        recording.close();
+    }
+
+    // Events
+
+    @Name("com.alex.tetris.Frame")
+    @Label("Frame")
+    @Description("CPU time of one rendered frame, split by phase")
+    @Category({"Tetris", "Frame"})
+    @StackTrace(false)
+    static class FrameEvent extends Event {
+        @Label("Input") @Timespan long input;
+        @Label("Update") @Timespan long update;
+        @Label("Board") @Timespan long board;
+        @Label("Pieces") @Timespan long pieces;
+        @Label("HUD") @Timespan long hud;
+        @Label("Stage") @Timespan long stage;
+        @Label("Pause Overlay") @Timespan long pause;
+        @Label("SpriteBatch Render Calls") int renderCalls;
+    }
+
+    @Name("com.alex.tetris.PieceSpawn")
+    @Label("Piece Spawn")
+    @Category({"Tetris", "Gameplay"})
+    @StackTrace(false)
+    static class PieceSpawnEvent extends Event {
+        @Label("Piece Type") int type;
+    }
+
+    @Name("com.alex.tetris.PiecePlaced")
+    @Label("Piece Placed")
+    @Category({"Tetris", "Gameplay"})
+    @StackTrace(false)
+    static class PiecePlacedEvent extends Event {
+        @Label("Piece Type") int type;
+        @Label("Rotation") int rotation;
+        @Label("Column") int x;
+        @Label("Row") int y;
+    }
+
+    @Name("com.alex.tetris.LineClear")
+    @Label("Line Clear")
+    @Category({"Tetris", "Gameplay"})
+    @StackTrace(false)
+    static class LineClearEvent extends Event {
+        @Label("Lines") int lines;
+    }
+
+    @Name("com.alex.tetris.Rotation")
+    @Label("Rotation")
+    @Description("Rotation attempt; not rotated when no wall kick fits")
+    @Category({"Tetris", "Gameplay"})
+    @StackTrace(false)
+    static class RotationEvent extends Event {
+        @Label("Piece Type") int type;
+        @Label("From Rotation") int fromRotation;
+        @Label("Rotated") boolean rotated;
+    }
+
+    @Name("com.alex.tetris.GameOver")
+    @Label("Game Over")
+    @Category({"Tetris", "Gameplay"})
+    @StackTrace(false)
+    static class GameOverEvent extends Event {
+        @Label("Score") int score;
+        @Label("Lines") int lines;
+        @Label("Ticks") long ticks;
+    }
+}
@@ -0,0 +1,268 @@
+package com.alex.tetris.lwjgl3;
+
+import com.alex.tetris.FixedTimestep;
+import com.alex.tetris.FrameProfiler;
+import com.alex.tetris.GameSnapshot;
+import com.alex.tetris.GameTelemetry;
+import com.alex.tetris.Hud;
+import com.alex.tetris.InputPipeline;
+import com.alex.tetris.SimulationThread;
+import com.alex.tetris.TetrisEngine;
+import com.alex.tetris.TetrisGame;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+/**
+ * Drives thousands of simulated frames through the per-frame code of GameScreen and fails if the
+ * steady state allocates any heap memory. Each frame calls what GameScreen calls: key events into
+ * {@link InputPipeline}, {@link FixedTimestep}, {@link InputPipeline#runTicks} for the engine on
+ * the render thread, {@link SimulationThread#sendInput} and {@link SimulationThread#tick} for the
+ * engine on the simulation thread, {@link GameSnapshot#copyFrom}, {@link Hud#update} and the
+ * {@link FrameProfiler} phases with telemetry on. The simulation thread is not started: its ticks
+ * run here, so they are counted too. Drawing is left out: it needs a GL context. So is the text of
+ * the F3 panel, whose glyph buffers grow to the longest line seen and so depend on the measured times.
+ *
+ * <p>After a fixed warm-up every round of frames is measured on its own, and any byte allocated in
+ * any of them fails the check. It runs with C1 only ({@code -XX:TieredStopAtLevel=1}): compiled
+ * code then allocates exactly what the source does, with no escape analysis to hide an allocation.
+ * It also avoids the one allocation that is not the game's: before a C2 compile HotSpot resolves
+ * the string constants of the compiled method's class on the thread that triggered it (a String and
+ * its byte[], 88 bytes), at some random late frame. Without the flag the check refuses to run.
+ *
+ * <p>There is no window, so {@code Gdx.input}, {@code Gdx.graphics} and {@code Gdx.gl} are stubs;
+ * the font texture is created against the GL stub. Event timestamps are boxed up front, so the
+ * input stub does not allocate either.
+ * Run with {@code lwjgl3:allocationCheck}; it is also part of {@code check}.
+ */
+public class AllocationCheck {
+    private static final int WARMUP_FRAMES = 200_000;
+    private static final int MEASURED_FRAMES = 50_000;
+    private static final int ROUNDS = 5;
+    // 60, 144 and 30 Hz frames, so some frames run no tick and others several
+    private static final float[] FRAME_DELTAS = {1 / 60f, 1 / 144f, 1 / 60f, 1 / 30f};
+
+    // Timestamp returned by the Gdx.input stub: one boxed value per frame, created before measuring
+    private static Long[] eventTimes;
+    private static int frameIndex;
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : MEASURED_FRAMES;
+
+        HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        if (!"true".equals(vm.getVMOption("TieredCompilation").getValue())
+            || !"1".equals(vm.getVMOption("TieredStopAtLevel").getValue())) {
+            System.err.println("Run with -XX:TieredStopAtLevel=1: the check measures C1-compiled code.");
+            System.exit(2);
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation counters not supported by this JVM, skipping.");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        eventTimes = new Long[WARMUP_FRAMES + ROUNDS * frames];
+        long time = 0;
+        for (int i = 0; i < eventTimes.length; i++) {
+            eventTimes[i] = time;
+            time += (long) (FRAME_DELTAS[i % FRAME_DELTAS.length] * 1e9);
+        }
+        installStubs();
+
+        BitmapFont font = newFont();
+        Frame frame = new Frame(font);
+
+        // Warms up the JIT and goes through spawns, line clears, level changes and restarts.
+        frame.run(WARMUP_FRAMES);
+
+        // Cost of the measurement itself, subtracted below.
+        long baseline = threads.getThreadAllocatedBytes(threadId);
+        long overhead = threads.getThreadAllocatedBytes(threadId) - baseline;
+
+        // Every round is measured on its own, so an allocation that only happens now and then still shows up.
+        int failed = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            frame.run(frames);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+            System.out.printf("round %d: %d frames, %d bytes allocated%n", round, frames, allocated);
+            if (allocated != 0) failed++;
+        }
+
+        if (failed > 0) {
+            System.err.printf("Frame loop allocates in %d of %d rounds: expected 0 bytes per frame.%n", failed, ROUNDS);
+            System.exit(1);
+        }
+    }
+
+    /** The state GameScreen keeps between frames, once per engine mode, minus drawing. */
+    private static final class Frame {
+        final Random keys = new Random(7);
+        final FixedTimestep timestep = new FixedTimestep(TetrisGame.TICKS_PER_SECOND, TetrisGame.MAX_FRAME_TIME);
+        final FrameProfiler profiler;
+        // Engine on the render thread
+        final TetrisEngine engine = new TetrisEngine(42);
+        final InputPipeline input = new InputPipeline(null);
+        final GameSnapshot snapshot;
+        final Hud hud;
+        // Engine on the simulation thread
+        final TetrisEngine simulatedEngine = new TetrisEngine(43);
+        final InputPipeline simulatedInput = new InputPipeline(null);
+        final SimulationThread simulation;
+        final Hud simulatedHud;
+        int highScore;
+
+        Frame(BitmapFont font) {
+            int columns = engine.getBoard().getColumns();
+            snapshot = new GameSnapshot(columns, engine.getBoard().getRows());
+            simulation = new SimulationThread(simulatedEngine);
+            input.reset(columns);
+            simulatedInput.reset(columns);
+            hud = newHud(font);
+            simulatedHud = newHud(font);
+            profiler = new FrameProfiler(font, new MXBeanGcStats());
+            // Telemetry on, as with --jfr: the profiler measures the phases of every frame
+            engine.setTelemetry(NO_TELEMETRY);
+            simulatedEngine.setTelemetry(NO_TELEMETRY);
+            profiler.setTelemetry(NO_TELEMETRY);
+        }
+
+        void run(int frames) {
+            for (int i = 0; i < frames; i++) {
+                step();
+            }
+        }
+
+        // One frame per call, like render(): the JIT compiles it as a normal method, not only inside this loop
+        private void step() {
+            float delta = FRAME_DELTAS[frameIndex % FRAME_DELTAS.length];
+            long now = eventTimes[frameIndex];
+            profiler.beginFrame();
+
+            profiler.phase(FrameProfiler.INPUT);
+            pressKeys();
+
+            profiler.phase(FrameProfiler.UPDATE);
+            int steps = timestep.advance(delta);
+            input.runTicks(engine, steps, timestep.getAlpha(), now);
+            snapshot.copyFrom(engine);
+            // The simulation thread would run these ticks on its own clock
+            simulation.sendInput(simulatedInput, now);
+            for (int i = 0; i < steps; i++) {
+                simulation.tick();
+            }
+            GameSnapshot simulated = simulation.latest();
+            if (snapshot.isGameOver()) restart(engine);
+            if (simulated.isGameOver()) restart(simulatedEngine);
+
+            profiler.phase(FrameProfiler.HUD);
+            highScore = Math.max(highScore, Math.max(snapshot.getScore(), simulated.getScore()));
+            hud.update(snapshot, highScore);
+            simulatedHud.update(simulated, highScore);
+            profiler.addRenderCalls(3);
+            profiler.endFrame();
+            frameIndex++;
+        }
+
+        // Alternates the classic rules and the level curve from one game to the next
+        private static void restart(TetrisEngine engine) {
+            engine.setRules(engine.getRules() == TetrisEngine.RULES_LEVELS
+                ? TetrisEngine.RULES_CLASSIC : TetrisEngine.RULES_LEVELS, 1);
+            engine.reset();
+        }
+
+        // Presses and releases keys at random; held arrows and Down exercise DAS/ARR and held soft drop
+        private void pressKeys() {
+            int key = keys.nextInt(24);
+            press(input, key);
+            press(simulatedInput, key);
+        }
+
+        private static void press(InputPipeline input, int key) {
+            switch (key) {
+                case 0: input.keyDown(Input.Keys.LEFT); break;
+                case 1: input.keyUp(Input.Keys.LEFT); break;
+                case 2: input.keyDown(Input.Keys.RIGHT); break;
+                case 3: input.keyUp(Input.Keys.RIGHT); break;
+                case 4: input.keyDown(Input.Keys.UP); break;
+                case 5: input.keyDown(Input.Keys.DOWN); break;
+                case 6: input.keyUp(Input.Keys.DOWN); break;
+                case 7: input.keyDown(Input.Keys.SPACE); break;
+                default: break;
+            }
+        }
+
+        private static Hud newHud(BitmapFont font) {
+            Hud hud = new Hud(font, font);
+            hud.layout(20, 780, 20, 750, 20, 740, 300, 780, 20, 20);
+            return hud;
+        }
+    }
+
+    private static final GameTelemetry NO_TELEMETRY = new GameTelemetry() {
+        @Override public void frameBegin() { }
+        @Override public void frameEnd(long[] phaseNanos, int renderCalls) { }
+        @Override public void pieceSpawned(int type) { }
+        @Override public void piecePlaced(int type, int rotation, int x, int y) { }
+        @Override public void linesCleared(int lines) { }
+        @Override public void rotation(int type, int fromRotation, boolean rotated) { }
+        @Override public void gameOver(int score, int linesCleared, long ticks) { }
+    };
+
+    private static void installStubs() {
+        Gdx.files = new Lwjgl3Files();
+        Gdx.input = stub(Input.class);
+        Gdx.graphics = stub(Graphics.class);
+        Gdx.gl = Gdx.gl20 = stub(GL20.class);
+    }
+
+    // Every method returns zero, false or null, except the input's event time
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Class<?> result = method.getReturnType();
+            if (method.getName().equals("getCurrentEventTime")) return eventTimes[frameIndex];
+            if (result == boolean.class) return Boolean.FALSE;
+            if (result == int.class) return 0;
+            if (result == long.class) return 0L;
+            if (result == float.class) return 0f;
+            if (result == double.class) return 0d;
+            return null;
+        });
+    }
+
+    // The game's font over a texture that only exists for the GL stub
+    private static BitmapFont newFont() {
+        Texture page = new Texture(new TextureData() {
+            @Override public TextureDataType getType() { return TextureDataType.Custom; }
+            @Override public boolean isPrepared() { return true; }
+            @Override public void prepare() { }
+            @Override public Pixmap consumePixmap() { throw new GdxRuntimeException("No pixmap"); }
+            @Override public boolean disposePixmap() { return false; }
+            @Override public void consumeCustomData(int target) { }
+            @Override public int getWidth() { return 256; }
+            @Override public int getHeight() { return 256; }
+            @Override public Pixmap.Format getFormat() { return Pixmap.Format.RGBA8888; }
+            @Override public boolean useMipMaps() { return false; }
+            @Override public boolean isManaged() { return false; }
+        });
+        return new BitmapFont(new BitmapFont.BitmapFontData(
+            Gdx.files.classpath("com/badlogic/gdx/utils/lsans-15.fnt"), false), new TextureRegion(page), false);
+    }
+}
@@ -0,0 +1,242 @@
+package com.alex.tetris.lwjgl3;
+
+import com.alex.tetris.Bot;
+import com.alex.tetris.BotPolicy;
+import com.alex.tetris.InputPolicy;
+import com.alex.tetris.RandomInputPolicy;
+import com.alex.tetris.ScriptedInputPolicy;
+import com.alex.tetris.TetrisEngine;
+import com.alex.tetris.TetrisGame;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless entry point that plays a range of seeded games with no window and reports aggregated
+ * statistics. Games are split across a work-stealing {@link ForkJoinPool}; each leaf task reuses
+ * one engine and one policy for all of its games. The bot policy searches on the worker's own
+ * thread, since the games already keep every core busy. Progress is printed every second and, with
+ * {@code --csv}, one row per game is written for offline analysis. {@code --board} plays on a board
+ * of another size, e.g. {@code 40x400}. Games use the classic rules (fixed gravity) unless
+ * {@code --rules levels[:START_LEVEL]} asks for the level curve; the bot still loses at 20G.
+ *
+ * <pre>
+ * lwjgl3:simulate --args="--seeds 0-999999 --policy random --threads 8 --csv games.csv"
+ * </pre>
+ */
+public class BatchSimulator {
+    private static final int MAX_LEAF_GAMES = 256;
+    private static final int LEAVES_PER_THREAD = 8;
+    private static final long DEFAULT_MAX_TICKS = 60L * 60 * TetrisGame.TICKS_PER_SECOND; // One hour of game time
+
+    private final String policy;
+    private final int columns;
+    private final int rows;
+    private final int rules;
+    private final int startLevel;
+    private final long maxTicks;
+    private final Writer csv;
+    private final long leafGames;
+    private final LongAdder gamesDone = new LongAdder();
+    private final LongAdder piecesDone = new LongAdder();
+    private final LongAdder placementsEvaluated = new LongAdder();
+
+    private BatchSimulator(String policy, int columns, int rows, int rules, int startLevel, long maxTicks,
+                           Writer csv, long leafGames) {
+        this.policy = policy;
+        this.columns = columns;
+        this.rows = rows;
+        this.rules = rules;
+        this.startLevel = startLevel;
+        this.maxTicks = maxTicks;
+        this.csv = csv;
+        this.leafGames = leafGames;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long firstSeed = 0;
+        long lastSeed = 9_999;
+        String policy = "random";
+        int columns = TetrisGame.BOARD_COLUMNS;
+        int rows = TetrisGame.BOARD_ROWS;
+        int rules = TetrisEngine.RULES_CLASSIC;
+        int startLevel = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long maxTicks = DEFAULT_MAX_TICKS;
+        String csvPath = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) usage("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--seeds":
+                    int dash = value.indexOf('-', 1);
+                    firstSeed = Long.parseLong(dash < 0 ? value : value.substring(0, dash));
+                    lastSeed = dash < 0 ? firstSeed : Long.parseLong(value.substring(dash + 1));
+                    break;
+                case "--policy": policy = value; break;
+                case "--board":
+                    int x = value.indexOf('x');
+                    if (x < 0) usage("--board expects COLUMNSxROWS: " + value);
+                    columns = Integer.parseInt(value.substring(0, x));
+                    rows = Integer.parseInt(value.substring(x + 1));
+                    break;
+                case "--rules":
+                    if (value.equals("classic")) {
+                        rules = TetrisEngine.RULES_CLASSIC;
+                    } else if (value.equals("levels") || value.startsWith("levels:")) {
+                        rules = TetrisEngine.RULES_LEVELS;
+                        startLevel = value.length() > 6 ? Integer.parseInt(value.substring(7)) : 1;
+                    } else {
+                        usage("--rules expects classic or levels[:START_LEVEL]: " + value);
+                    }
+                    break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--max-ticks": maxTicks = Long.parseLong(value); break;
+                case "--csv": csvPath = value; break;
+                default: usage("Unknown option " + arg);
+            }
+        }
+        if (lastSeed < firstSeed) usage("Empty seed range " + firstSeed + "-" + lastSeed);
+        if (threads < 1) usage("--threads must be at least 1");
+        try {
+            // Fails early on an unsupported board size or level, an unknown policy or a board too large for the bot
+            new TetrisEngine(columns, rows, 0).setRules(rules, startLevel);
+            newPolicy(policy, columns, rows);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+
+        Writer csv = null;
+        if (csvPath != null) {
+            csv = new BufferedWriter(new FileWriter(csvPath), 1 << 16);
+            csv.write("seed,score,lines,pieces,ticks,topped_out\n");
+        }
+
+        long games = lastSeed - firstSeed + 1;
+        // Few (long, e.g. bot) games get small leaves so they still spread across every thread
+        long leafGames = Math.max(1, Math.min(MAX_LEAF_GAMES, games / ((long) threads * LEAVES_PER_THREAD)));
+        BatchSimulator simulator = new BatchSimulator(policy, columns, rows, rules, startLevel, maxTicks, csv, leafGames);
+        System.out.printf("Simulating %d games (seeds %d-%d) on %dx%d, policy %s, %s rules, %d threads%n",
+            games, firstSeed, lastSeed, columns, rows, policy,
+            rules == TetrisEngine.RULES_CLASSIC ? "classic" : "levels from " + startLevel, threads);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        ForkJoinTask<SimulationStats> result = pool.submit(simulator.new GamesTask(firstSeed, lastSeed + 1));
+        simulator.reportProgress(result, games, start);
+        SimulationStats stats = result.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        if (csv != null) csv.close();
+        stats.print(System.out, seconds);
+        if (simulator.placementsEvaluated.sum() > 0) {
+            System.out.printf("bot            %.0f placements evaluated/s%n", simulator.placementsEvaluated.sum() / seconds);
+        }
+    }
+
+    static InputPolicy newPolicy(String name, int columns, int rows) {
+        if (name.equals("random")) return new RandomInputPolicy(8);
+        if (name.startsWith("random:")) return new RandomInputPolicy(Integer.parseInt(name.substring(7)));
+        if (name.startsWith("scripted:")) return new ScriptedInputPolicy(name.substring(9));
+        if (name.equals("scripted")) return new ScriptedInputPolicy("U.LL..H..RR...H...U.RRR.H....LLL.H");
+        if (name.equals("bot")) return new BotPolicy(new Bot(columns, rows, null), 1);
+        throw new IllegalArgumentException("Unknown policy: " + name + " (random[:period], scripted[:script], bot)");
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: BatchSimulator [--seeds FIRST-LAST] [--policy random[:period]|scripted[:script]|bot]");
+        System.err.println("                      [--board COLUMNSxROWS] [--rules classic|levels[:START_LEVEL]]");
+        System.err.println("                      [--threads N] [--max-ticks N] [--csv FILE]");
+        System.exit(2);
+    }
+
+    private void reportProgress(ForkJoinTask<?> result, long games, long start) throws InterruptedException {
+        while (!result.isDone()) {
+            TimeUnit.SECONDS.sleep(1);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long done = gamesDone.sum();
+            System.out.printf("  %d/%d games  %.0f games/s  %.0f pieces/s%n",
+                done, games, done / seconds, piecesDone.sum() / seconds);
+        }
+    }
+
+    /** Plays seeds [from, to), splitting the range until it is small enough for one leaf. */
+    private class GamesTask extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        GamesTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from > leafGames) {
+                long middle = from + (to - from) / 2;
+                GamesTask left = new GamesTask(from, middle);
+                left.fork();
+                SimulationStats stats = new GamesTask(middle, to).compute();
+                stats.merge(left.join());
+                return stats;
+            }
+            return playAll();
+        }
+
+        private SimulationStats playAll() {
+            SimulationStats stats = new SimulationStats();
+            TetrisEngine engine = new TetrisEngine(columns, rows, from);
+            InputPolicy inputs = newPolicy(policy, columns, rows);
+            engine.setRules(rules, startLevel);
+            StringBuilder lines = csv != null ? new StringBuilder() : null;
+
+            for (long seed = from; seed < to; seed++) {
+                engine.reset(seed);
+                inputs.reset(engine);
+                while (!engine.isGameOver() && engine.getTickCount() < maxTicks) {
+                    int input = inputs.nextInput(engine);
+                    if (input != InputPolicy.NONE) engine.applyInput(input);
+                    engine.tick();
+                }
+                stats.record(engine);
+                gamesDone.increment();
+                piecesDone.add(engine.getPiecesPlaced());
+                if (lines != null) {
+                    lines.append(seed).append(',').append(engine.getScore()).append(',')
+                        .append(engine.getLinesCleared()).append(',').append(engine.getPiecesPlaced()).append(',')
+                        .append(engine.getTickCount()).append(',').append(engine.isGameOver()).append('\n');
+                }
+            }
+
+            if (lines != null) writeRows(lines);
+            if (inputs instanceof BotPolicy) {
+                placementsEvaluated.add(((BotPolicy) inputs).getBot().getEvaluatedPlacements());
+            }
+            return stats;
+        }
+
+        private void writeRows(StringBuilder rows) {
+            synchronized (csv) {
+                try {
+                    csv.append(rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
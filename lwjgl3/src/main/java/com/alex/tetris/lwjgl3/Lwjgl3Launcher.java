@@ -2,17 +2,69 @@ package com.alex.tetris.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.alex.tetris.GameTelemetry;
 import com.alex.tetris.TetrisGame;
 
-/** Launches the desktop (LWJGL3) application. */
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Launches the desktop (LWJGL3) application. {@code --jfr <file>} records a Java Flight Recorder
+ * file with the game's frame and gameplay events (needs Java 11 or newer). {@code --sim-thread}
+ * runs the game simulation on its own thread instead of the render thread. {@code --low-power}
+ * renders games on demand like the Android build.
+ */
 public class Lwjgl3Launcher {
+    private static final String JFR_TELEMETRY = "com.alex.tetris.lwjgl3.jfr.JfrTelemetry";
+
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        String jfrFile = null;
+        boolean simulationThread = false;
+        boolean lowPower = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("--jfr".equals(args[i]) && i + 1 < args.length) {
+                jfrFile = args[++i];
+            } else if ("--sim-thread".equals(args[i])) {
+                simulationThread = true;
+            } else if ("--low-power".equals(args[i])) {
+                lowPower = true;
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.err.println("Usage: Lwjgl3Launcher [--jfr <file>] [--sim-thread] [--low-power]");
+                System.exit(2);
+            }
+        }
+        GameTelemetry telemetry = jfrFile != null ? startFlightRecording(jfrFile) : null;
+        createApplication(telemetry, simulationThread, lowPower);
+        if (telemetry instanceof Closeable) {
+            try {
+                ((Closeable) telemetry).close();
+            } catch (IOException e) {
+                System.err.println("Could not write the flight recording: " + e);
+            }
+        }
+    }
+
+    private static Lwjgl3Application createApplication(GameTelemetry telemetry, boolean simulationThread, boolean lowPower) {
+        TetrisGame game = new TetrisGame();
+        game.gcStats = new MXBeanGcStats(); // GC counters for the F3 frame profiler
+        game.telemetry = telemetry;
+        game.simulationThread = simulationThread;
+        game.lowPower = lowPower;
+        return new Lwjgl3Application(game, getDefaultConfiguration());
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new TetrisGame(), getDefaultConfiguration());
+    // The JFR classes are compiled for Java 11 in their own source set, so they are only loaded here.
+    private static GameTelemetry startFlightRecording(String file) {
+        try {
+            return (GameTelemetry) Class.forName(JFR_TELEMETRY).getConstructor(String.class).newInstance(file);
+        } catch (LinkageError | ReflectiveOperationException e) {
+            Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+            System.err.println("Flight recording not available (needs Java 11+): " + cause);
+            return null;
+        }
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
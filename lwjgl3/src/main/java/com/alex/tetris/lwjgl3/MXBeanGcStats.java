@@ -0,0 +1,35 @@
+package com.alex.tetris.lwjgl3;
+
+import com.alex.tetris.FrameProfiler;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/** Collection count and time summed over every garbage collector of the JVM, for the frame profiler. */
+public class MXBeanGcStats implements FrameProfiler.GcStats {
+    private final GarbageCollectorMXBean[] collectors;
+
+    public MXBeanGcStats() {
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+    }
+
+    @Override
+    public long getCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount()); // -1 when undefined
+        }
+        return count;
+    }
+
+    @Override
+    public long getCollectionTimeMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,92 @@
+package com.alex.tetris.lwjgl3;
+
+import com.alex.tetris.Replay;
+import com.alex.tetris.ReplayPlayer;
+import com.alex.tetris.TetrisEngine;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Re-runs recorded replays through {@link TetrisEngine} as fast as possible and checks that each
+ * one still reaches the recorded end tick and score. Arguments are {@code .trpl} files or
+ * directories containing them. Exits with status 1 if any replay diverges or cannot be read.
+ * Run with {@code lwjgl3:verifyReplays --args="<files or directories>"}.
+ */
+public class ReplayTool {
+    private static final String EXTENSION = ".trpl";
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayTool <replay file or directory>...");
+            System.exit(2);
+        }
+
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            collect(new File(arg), files);
+        }
+        Collections.sort(files);
+
+        TetrisEngine engine = null;
+        int failures = 0;
+        long ticks = 0;
+        long start = System.nanoTime();
+        for (File file : files) {
+            Replay replay;
+            try {
+                replay = read(file);
+            } catch (IOException e) {
+                System.out.println("ERROR    " + file + ": " + e.getMessage());
+                failures++;
+                continue;
+            }
+
+            // One engine per board size; consecutive replays usually share it
+            if (engine == null || engine.getBoard().getColumns() != replay.getColumns()
+                || engine.getBoard().getRows() != replay.getRows()) {
+                engine = new TetrisEngine(replay.getColumns(), replay.getRows(), replay.getSeed());
+            }
+            ReplayPlayer player = new ReplayPlayer(replay, engine);
+            player.runToEnd();
+            ticks += engine.getTickCount();
+            if (!player.matchesRecording()) {
+                System.out.printf("MISMATCH %s: tick %d score %d, recorded tick %d score %d%n",
+                    file, engine.getTickCount(), engine.getScore(), replay.getEndTick(), replay.getFinalScore());
+                failures++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d replays, %d failed, %d ticks in %.2f s%n", files.size(), failures, ticks, seconds);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void collect(File file, List<File> out) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) return;
+            for (File child : children) {
+                if (child.isDirectory() || child.getName().endsWith(EXTENSION)) {
+                    collect(child, out);
+                }
+            }
+        } else {
+            out.add(file);
+        }
+    }
+
+    private static Replay read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return Replay.read(in);
+        }
+    }
+}
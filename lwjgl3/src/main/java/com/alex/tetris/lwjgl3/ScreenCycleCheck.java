@@ -0,0 +1,92 @@
+package com.alex.tetris.lwjgl3;
+
+import com.alex.tetris.Resources;
+import com.alex.tetris.TetrisGame;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+
+/**
+ * Opens the real game in a window and switches menu → game → menu once per frame, then fails if
+ * the number of live textures, frame buffers, stages or shared resources grew after the first cycle.
+ * It also fails if a game frame drew the board, pieces and HUD in more than
+ * {@link #MAX_GAME_RENDER_CALLS} SpriteBatch flushes. Needs a display, so it is not part of
+ * {@code check}; run it with {@code lwjgl3:screenCycleCheck}.
+ */
+public class ScreenCycleCheck extends TetrisGame {
+    private static final int DEFAULT_CYCLES = 1000;
+    // The board layer's frame buffer, then one atlas page for cells, pieces and HUD text
+    private static final int MAX_GAME_RENDER_CALLS = 2;
+
+    private final int cycles;
+    private int step;
+    private int baselineTextures, baselineFrameBuffers, baselineStages, baselineShared;
+    private int maxGameRenderCalls;
+    private boolean failed;
+
+    private ScreenCycleCheck(int cycles) {
+        this.cycles = cycles;
+    }
+
+    public static void main(String[] args) {
+        int cycles = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CYCLES;
+        Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
+        configuration.setTitle("ScreenCycleCheck");
+        configuration.setWindowedMode(480, 800);
+        configuration.useVsync(false);
+        configuration.setForegroundFPS(0);
+        ScreenCycleCheck check = new ScreenCycleCheck(cycles);
+        new Lwjgl3Application(check, configuration);
+        System.exit(check.failed ? 1 : 0);
+    }
+
+    @Override
+    public void render() {
+        super.render();
+        if (getScreen() == getGameScreen()) {
+            maxGameRenderCalls = Math.max(maxGameRenderCalls, getGameScreen().getRenderCalls());
+        }
+        // The menu loads the assets and prepares the game screen; cycling starts after that.
+        if (!getGameScreen().isPrepared()) return;
+
+        if (step % 2 == 0) {
+            startGame(System.nanoTime());
+        } else {
+            showMenu();
+        }
+        step++;
+
+        int cycle = step / 2;
+        if (step % 2 != 0) return;
+        if (cycle == 1) {
+            baselineTextures = Resources.getLiveTextures();
+            baselineFrameBuffers = resources.getLiveFrameBuffers();
+            baselineStages = resources.getLiveStages();
+            baselineShared = resources.size();
+        } else if (cycle == cycles) {
+            report();
+            Gdx.app.exit();
+        }
+    }
+
+    private void report() {
+        int textures = Resources.getLiveTextures();
+        int frameBuffers = resources.getLiveFrameBuffers();
+        int stages = resources.getLiveStages();
+        int shared = resources.size();
+        System.out.printf("%d cycles: textures %d -> %d, frame buffers %d -> %d, stages %d -> %d,"
+                + " shared resources %d -> %d%n", cycles, baselineTextures, textures, baselineFrameBuffers, frameBuffers,
+            baselineStages, stages, baselineShared, shared);
+        if (textures > baselineTextures || frameBuffers > baselineFrameBuffers || stages > baselineStages
+            || shared > baselineShared) {
+            System.err.println("Switching screens leaks resources: counters must not grow.");
+            failed = true;
+        }
+        System.out.printf("game frames: at most %d render calls for board, pieces and HUD (budget %d)%n",
+            maxGameRenderCalls, MAX_GAME_RENDER_CALLS);
+        if (maxGameRenderCalls > MAX_GAME_RENDER_CALLS) {
+            System.err.println("A game frame broke the batch into more render calls than the atlas allows.");
+            failed = true;
+        }
+    }
+}
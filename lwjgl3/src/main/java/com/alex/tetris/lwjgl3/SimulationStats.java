@@ -0,0 +1,101 @@
+package com.alex.tetris.lwjgl3;
+
+import com.alex.tetris.TetrisEngine;
+
+import java.io.PrintStream;
+
+/**
+ * Aggregated results of a batch of finished games. Each worker fills its own instance and the
+ * instances are merged at the end, so recording a game never contends with other threads.
+ * Score and length distributions are kept as fixed-width histograms for percentiles.
+ */
+class SimulationStats {
+    static final int SCORE_BUCKET = 100;
+    static final int LENGTH_BUCKET_TICKS = 60;
+    private static final int BUCKETS = 4096;
+
+    long games;
+    long toppedOut;
+    long totalScore;
+    long totalLines;
+    long totalPieces;
+    long totalTicks;
+    int maxScore;
+    int maxLines;
+    long maxTicks;
+    final long[] scoreHistogram = new long[BUCKETS];
+    final long[] lengthHistogram = new long[BUCKETS];
+
+    void record(TetrisEngine engine) {
+        int score = engine.getScore();
+        long ticks = engine.getTickCount();
+        games++;
+        if (engine.isGameOver()) toppedOut++;
+        totalScore += score;
+        totalLines += engine.getLinesCleared();
+        totalPieces += engine.getPiecesPlaced();
+        totalTicks += ticks;
+        maxScore = Math.max(maxScore, score);
+        maxLines = Math.max(maxLines, engine.getLinesCleared());
+        maxTicks = Math.max(maxTicks, ticks);
+        scoreHistogram[bucket(score / SCORE_BUCKET)]++;
+        lengthHistogram[bucket(ticks / LENGTH_BUCKET_TICKS)]++;
+    }
+
+    void merge(SimulationStats other) {
+        games += other.games;
+        toppedOut += other.toppedOut;
+        totalScore += other.totalScore;
+        totalLines += other.totalLines;
+        totalPieces += other.totalPieces;
+        totalTicks += other.totalTicks;
+        maxScore = Math.max(maxScore, other.maxScore);
+        maxLines = Math.max(maxLines, other.maxLines);
+        maxTicks = Math.max(maxTicks, other.maxTicks);
+        for (int i = 0; i < BUCKETS; i++) {
+            scoreHistogram[i] += other.scoreHistogram[i];
+            lengthHistogram[i] += other.lengthHistogram[i];
+        }
+    }
+
+    private static int bucket(long value) {
+        return (int) Math.min(value, BUCKETS - 1);
+    }
+
+    /** Lower bound of the bucket holding the given fraction of games (the last bucket is open-ended). */
+    static long percentile(long[] histogram, long total, double fraction, int bucketWidth) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= Math.max(target, 1)) {
+                return (long) i * bucketWidth;
+            }
+        }
+        return (long) (histogram.length - 1) * bucketWidth;
+    }
+
+    void print(PrintStream out, double seconds) {
+        if (games == 0) {
+            out.println("No games simulated.");
+            return;
+        }
+        out.printf("games          %d (%d topped out, %d hit the tick limit)%n", games, toppedOut, games - toppedOut);
+        out.printf("score          mean %.1f  p50 %d  p90 %d  p99 %d  max %d%n",
+            totalScore / (double) games,
+            percentile(scoreHistogram, games, 0.50, SCORE_BUCKET),
+            percentile(scoreHistogram, games, 0.90, SCORE_BUCKET),
+            percentile(scoreHistogram, games, 0.99, SCORE_BUCKET),
+            maxScore);
+        out.printf("lines          mean %.2f  max %d%n", totalLines / (double) games, maxLines);
+        out.printf("pieces         mean %.1f%n", totalPieces / (double) games);
+        out.printf("length (ticks) mean %.1f  p50 %d  p90 %d  p99 %d  max %d%n",
+            totalTicks / (double) games,
+            percentile(lengthHistogram, games, 0.50, LENGTH_BUCKET_TICKS),
+            percentile(lengthHistogram, games, 0.90, LENGTH_BUCKET_TICKS),
+            percentile(lengthHistogram, games, 0.99, LENGTH_BUCKET_TICKS),
+            maxTicks);
+        out.printf("throughput     %.0f games/s  %.0f pieces/s  %.0f ticks/s  (%.2f s)%n",
+            games / seconds, totalPieces / seconds, totalTicks / seconds, seconds);
+    }
+}